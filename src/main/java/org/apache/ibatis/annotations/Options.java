@@ -63,4 +63,11 @@ public @interface Options {
   String keyColumn() default "";
   
   String resultSets() default "";
+
+  /**
+   * Executes a slow select a second time on another connection and keeps the first result.
+   *
+   * @since 3.5.0
+   */
+  boolean hedged() default false;
 }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -248,6 +248,15 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setDefaultExecutorType(ExecutorType.valueOf(props.getProperty("defaultExecutorType", "SIMPLE")));
     configuration.setDefaultStatementTimeout(integerValueOf(props.getProperty("defaultStatementTimeout"), null));
     configuration.setDefaultFetchSize(integerValueOf(props.getProperty("defaultFetchSize"), null));
+    configuration.setDefaultCursorBatchSize(integerValueOf(props.getProperty("defaultCursorBatchSize"), null));
+    configuration.setAdaptiveFetchSizeEnabled(booleanValueOf(props.getProperty("adaptiveFetchSizeEnabled"), false));
+    configuration.setMinAdaptiveFetchSize(integerValueOf(props.getProperty("minAdaptiveFetchSize"), 10));
+    configuration.setMaxAdaptiveFetchSize(integerValueOf(props.getProperty("maxAdaptiveFetchSize"), 1000));
+    configuration.setHedgedQueryPercentile(integerValueOf(props.getProperty("hedgedQueryPercentile"), 95));
+    configuration.setCompiledRowMappingEnabled(booleanValueOf(props.getProperty("compiledRowMappingEnabled"), false));
+    configuration.setCompactMapResultsEnabled(booleanValueOf(props.getProperty("compactMapResultsEnabled"), false));
+    configuration.setColumnIndexReadsEnabled(booleanValueOf(props.getProperty("columnIndexReadsEnabled"), false));
+    configuration.setAutoMappingsCacheSize(integerValueOf(props.getProperty("autoMappingsCacheSize"), 1024));
     configuration.setMapUnderscoreToCamelCase(booleanValueOf(props.getProperty("mapUnderscoreToCamelCase"), false));
     configuration.setSafeRowBoundsEnabled(booleanValueOf(props.getProperty("safeRowBoundsEnabled"), false));
     configuration.setLocalCacheScope(LocalCacheScope.valueOf(props.getProperty("localCacheScope", "SESSION")));
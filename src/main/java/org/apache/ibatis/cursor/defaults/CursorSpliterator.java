@@ -0,0 +1,97 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the iterator of a Cursor.
+ * Splitting reads the next rows (at most {@code batchSize}) into an array that is handed over to another thread,
+ * so that a parallel stream can process chunks of a large result while the ResultSet is read by one thread at a time.
+ */
+public class CursorSpliterator<T> implements Spliterator<T> {
+
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.NONNULL;
+
+    private final Iterator<T> iterator;
+    private final int batchSize;
+
+    public CursorSpliterator(Iterator<T> iterator) {
+        this(iterator, DEFAULT_BATCH_SIZE);
+    }
+
+    public CursorSpliterator(Iterator<T> iterator, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Cursor batch size must be greater than zero but was " + batchSize);
+        }
+        this.iterator = iterator;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (action == null) {
+            throw new NullPointerException();
+        }
+        if (iterator.hasNext()) {
+            action.accept(iterator.next());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        if (action == null) {
+            throw new NullPointerException();
+        }
+        while (iterator.hasNext()) {
+            action.accept(iterator.next());
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        Object[] batch = new Object[batchSize];
+        int size = 0;
+        while (size < batchSize && iterator.hasNext()) {
+            batch[size++] = iterator.next();
+        }
+        return Spliterators.spliterator(batch, 0, size, CHARACTERISTICS);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
@@ -28,6 +28,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 /**
  * This is the default implementation of a MyBatis Cursor.
@@ -42,6 +43,7 @@ public class DefaultCursor<T> implements Cursor<T> {
     private final ResultMap resultMap;
     private final ResultSetWrapper rsw;
     private final RowBounds rowBounds;
+    private final int batchSize;
     private final ObjectWrapperResultHandler<T> objectWrapperResultHandler = new ObjectWrapperResultHandler<>();
 
     private final CursorIterator cursorIterator = new CursorIterator();
@@ -71,10 +73,18 @@ public class DefaultCursor<T> implements Cursor<T> {
     }
 
     public DefaultCursor(DefaultResultSetHandler resultSetHandler, ResultMap resultMap, ResultSetWrapper rsw, RowBounds rowBounds) {
+        this(resultSetHandler, resultMap, rsw, rowBounds, CursorSpliterator.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @since 3.5.0
+     */
+    public DefaultCursor(DefaultResultSetHandler resultSetHandler, ResultMap resultMap, ResultSetWrapper rsw, RowBounds rowBounds, int batchSize) {
         this.resultSetHandler = resultSetHandler;
         this.resultMap = resultMap;
         this.rsw = rsw;
         this.rowBounds = rowBounds;
+        this.batchSize = batchSize;
     }
 
     @Override
@@ -101,11 +111,19 @@ public class DefaultCursor<T> implements Cursor<T> {
         return cursorIterator;
     }
 
+    @Override
+    public Spliterator<T> spliterator() {
+        return new CursorSpliterator<>(iterator(), batchSize);
+    }
+
     @Override
     public void close() {
         if (isClosed()) {
             return;
         }
+        if (status == CursorStatus.OPEN) {
+            resultSetHandler.handleCursorClosed(rsw);
+        }
 
         ResultSet rs = rsw.getResultSet();
         try {
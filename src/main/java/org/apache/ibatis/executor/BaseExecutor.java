@@ -20,7 +20,10 @@ import static org.apache.ibatis.executor.ExecutionPlaceholder.EXECUTION_PLACEHOL
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.ibatis.cache.CacheKey;
@@ -36,7 +39,6 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
-import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.session.ResultHandler;
@@ -159,11 +161,9 @@ public abstract class BaseExecutor implements Executor {
       queryStack--;
     }
     if (queryStack == 0) {
-      for (DeferredLoad deferredLoad : deferredLoads) {
-        deferredLoad.load();
+      if (!deferredLoads.isEmpty()) {
+        loadDeferredLoads();
       }
-      // issue #601
-      deferredLoads.clear();
       if (configuration.getLocalCacheScope() == LocalCacheScope.STATEMENT) {
         // issue #482
         clearLocalCache();
@@ -183,14 +183,38 @@ public abstract class BaseExecutor implements Executor {
     if (closed) {
       throw new ExecutorException("Executor was closed.");
     }
-    DeferredLoad deferredLoad = new DeferredLoad(resultObject, property, key, localCache, configuration, targetType);
-    if (deferredLoad.canLoad()) {
-      deferredLoad.load();
+    DeferredLoad deferredLoad = new DeferredLoad(resultObject, property, key, targetType);
+    Object cached = localCache.getObject(key);
+    if (cached != null && cached != EXECUTION_PLACEHOLDER) {
+      deferredLoad.load(cached, newResultExtractor());
     } else {
-      deferredLoads.add(new DeferredLoad(resultObject, property, key, localCache, configuration, targetType));
+      deferredLoads.add(deferredLoad);
     }
   }
 
+  private void loadDeferredLoads() {
+    // issue #601, taken from the queue before loading: a setter may run a query on this executor,
+    // which then loads its own deferred loads
+    Map<CacheKey, List<DeferredLoad>> pendingLoads = new LinkedHashMap<>();
+    DeferredLoad pendingLoad;
+    while ((pendingLoad = deferredLoads.poll()) != null) {
+      // grouped by the cache key of the query they wait for
+      pendingLoads.computeIfAbsent(pendingLoad.key, k -> new ArrayList<>()).add(pendingLoad);
+    }
+    ResultExtractor resultExtractor = newResultExtractor();
+    for (Map.Entry<CacheKey, List<DeferredLoad>> entry : pendingLoads.entrySet()) {
+      // one lookup for all the properties waiting for the same query
+      Object cached = localCache.getObject(entry.getKey());
+      for (DeferredLoad deferredLoad : entry.getValue()) {
+        deferredLoad.load(cached, resultExtractor);
+      }
+    }
+  }
+
+  private ResultExtractor newResultExtractor() {
+    return new ResultExtractor(configuration, configuration.getObjectFactory());
+  }
+
   @Override
   public CacheKey createCacheKey(MappedStatement ms, Object parameterObject, RowBounds rowBounds, BoundSql boundSql) {
     if (closed) {
@@ -335,7 +359,18 @@ public abstract class BaseExecutor implements Executor {
   }
 
   protected Connection getConnection(Log statementLog) throws SQLException {
-    Connection connection = transaction.getConnection();
+    return wrapConnection(transaction.getConnection(), statementLog);
+  }
+
+  /**
+   * Get the connection the transaction provides for executing the statement.
+   * @since 3.5.0
+   */
+  protected Connection getConnection(MappedStatement ms) throws SQLException {
+    return wrapConnection(transaction.getConnection(ms), ms.getStatementLog());
+  }
+
+  protected Connection wrapConnection(Connection connection, Log statementLog) {
     if (statementLog.isDebugEnabled()) {
       return ConnectionLogger.newInstance(connection, statementLog, queryStack);
     } else {
@@ -354,34 +389,22 @@ public abstract class BaseExecutor implements Executor {
     private final String property;
     private final Class<?> targetType;
     private final CacheKey key;
-    private final PerpetualCache localCache;
-    private final ObjectFactory objectFactory;
-    private final ResultExtractor resultExtractor;
 
     // issue #781
     public DeferredLoad(MetaObject resultObject,
                         String property,
                         CacheKey key,
-                        PerpetualCache localCache,
-                        Configuration configuration,
                         Class<?> targetType) {
       this.resultObject = resultObject;
       this.property = property;
       this.key = key;
-      this.localCache = localCache;
-      this.objectFactory = configuration.getObjectFactory();
-      this.resultExtractor = new ResultExtractor(configuration, objectFactory);
       this.targetType = targetType;
     }
 
-    public boolean canLoad() {
-      return localCache.getObject(key) != null && localCache.getObject(key) != EXECUTION_PLACEHOLDER;
-    }
-
-    public void load() {
+    public void load(Object cached, ResultExtractor resultExtractor) {
       @SuppressWarnings( "unchecked" )
       // we suppose we get back a List
-      List<Object> list = (List<Object>) localCache.getObject(key);
+      List<Object> list = (List<Object>) cached;
       Object value = resultExtractor.extractObjectFromList(list, targetType);
       resultObject.setValue(property, value);
     }
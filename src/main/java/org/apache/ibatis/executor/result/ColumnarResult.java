@@ -0,0 +1,292 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a select statement stored by column instead of by row.
+ * <p>
+ * A statement whose result type is {@code ColumnarResult} returns a single instance holding all the rows of its
+ * result set: integral columns are stored as {@code int} or {@code long} values (unsigned {@code INTEGER} columns as
+ * {@code long} values, unsigned {@code BIGINT} columns as objects), floating point columns as {@code double} values
+ * and other columns, including decimal ones, as the objects read by their type handler.
+ * No object is created per row and null values are recorded in a bitmap per column.
+ * </p>
+ * <p>
+ * Values are stored in chunks of {@value #CHUNK_SIZE} rows, so that growing a large result never copies the values
+ * already read. The first chunk starts with room for {@value #INITIAL_CHUNK_SIZE} rows and doubles until it is full,
+ * so that small results stay small. Columns are numbered from 0, rows from 0.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+public class ColumnarResult {
+
+  public static final int CHUNK_SIZE = 1 << 13;
+
+  public static final int INITIAL_CHUNK_SIZE = 64;
+
+  private static final int CHUNK_SHIFT = 13;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private final List<String> columnNames;
+  private final List<Class<?>> columnTypes;
+  private final Column[] columns;
+  private int rowCount;
+  private int chunkCapacity;
+
+  /**
+   * @param columnNames the names of the columns
+   * @param columnTypes the type of each column: {@code int.class}, {@code long.class}, {@code double.class}
+   *        or any other type for columns stored as objects
+   */
+  public ColumnarResult(List<String> columnNames, List<Class<?>> columnTypes) {
+    if (columnNames.size() != columnTypes.size()) {
+      throw new IllegalArgumentException("Expected " + columnNames.size() + " column types but got " + columnTypes.size());
+    }
+    this.columnNames = Collections.unmodifiableList(new ArrayList<>(columnNames));
+    this.columnTypes = Collections.unmodifiableList(new ArrayList<>(columnTypes));
+    this.columns = new Column[columnNames.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = new Column(columnTypes.get(i));
+    }
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  public List<Class<?>> getColumnTypes() {
+    return columnTypes;
+  }
+
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  /**
+   * @param columnName the name of a column, case insensitive
+   * @return the index of the column, or -1 if there is no such column
+   */
+  public int getColumnIndex(String columnName) {
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (columnNames.get(i).equalsIgnoreCase(columnName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Adds a row whose values are then set with the setters, all values being null (or 0) until set.
+   *
+   * @return the index of the new row
+   */
+  public int addRow() {
+    final int index = rowCount & CHUNK_MASK;
+    if (index == 0) {
+      chunkCapacity = rowCount == 0 ? INITIAL_CHUNK_SIZE : CHUNK_SIZE;
+      for (Column column : columns) {
+        column.addChunk(rowCount >>> CHUNK_SHIFT, chunkCapacity);
+      }
+    } else if (index == chunkCapacity) {
+      // only the first chunk grows
+      chunkCapacity <<= 1;
+      for (Column column : columns) {
+        column.growChunk(0, chunkCapacity);
+      }
+    }
+    return rowCount++;
+  }
+
+  public void setNull(int column) {
+    final int row = rowCount - 1;
+    columns[column].nulls[row >>> CHUNK_SHIFT][(row & CHUNK_MASK) >>> 6] |= 1L << row;
+  }
+
+  public void setInt(int column, int value) {
+    final int row = rowCount - 1;
+    ((int[]) columns[column].chunks[row >>> CHUNK_SHIFT])[row & CHUNK_MASK] = value;
+  }
+
+  public void setLong(int column, long value) {
+    final int row = rowCount - 1;
+    ((long[]) columns[column].chunks[row >>> CHUNK_SHIFT])[row & CHUNK_MASK] = value;
+  }
+
+  public void setDouble(int column, double value) {
+    final int row = rowCount - 1;
+    ((double[]) columns[column].chunks[row >>> CHUNK_SHIFT])[row & CHUNK_MASK] = value;
+  }
+
+  public void setObject(int column, Object value) {
+    final int row = rowCount - 1;
+    ((Object[]) columns[column].chunks[row >>> CHUNK_SHIFT])[row & CHUNK_MASK] = value;
+  }
+
+  public boolean isNull(int column, int row) {
+    checkRow(row);
+    return (columns[column].nulls[row >>> CHUNK_SHIFT][(row & CHUNK_MASK) >>> 6] & (1L << row)) != 0;
+  }
+
+  /**
+   * @return the value, or 0 if it is null
+   */
+  public int getInt(int column, int row) {
+    checkRow(row);
+    return ((int[]) columns[column].chunks[row >>> CHUNK_SHIFT])[row & CHUNK_MASK];
+  }
+
+  /**
+   * @return the value, or 0 if it is null
+   */
+  public long getLong(int column, int row) {
+    checkRow(row);
+    return ((long[]) columns[column].chunks[row >>> CHUNK_SHIFT])[row & CHUNK_MASK];
+  }
+
+  /**
+   * @return the value, or 0 if it is null
+   */
+  public double getDouble(int column, int row) {
+    checkRow(row);
+    return ((double[]) columns[column].chunks[row >>> CHUNK_SHIFT])[row & CHUNK_MASK];
+  }
+
+  /**
+   * @return the value of any column, boxed for primitive columns, or {@code null}
+   */
+  public Object getObject(int column, int row) {
+    if (isNull(column, row)) {
+      return null;
+    }
+    final Object chunk = columns[column].chunks[row >>> CHUNK_SHIFT];
+    final int index = row & CHUNK_MASK;
+    if (chunk instanceof int[]) {
+      return ((int[]) chunk)[index];
+    } else if (chunk instanceof long[]) {
+      return ((long[]) chunk)[index];
+    } else if (chunk instanceof double[]) {
+      return ((double[]) chunk)[index];
+    }
+    return ((Object[]) chunk)[index];
+  }
+
+  /**
+   * @return a copy of the values of an {@code int} column, null values being 0
+   */
+  public int[] getInts(int column) {
+    final int[] values = new int[rowCount];
+    final Object[] chunks = columns[column].chunks;
+    for (int offset = 0, i = 0; offset < rowCount; offset += CHUNK_SIZE, i++) {
+      System.arraycopy((int[]) chunks[i], 0, values, offset, Math.min(CHUNK_SIZE, rowCount - offset));
+    }
+    return values;
+  }
+
+  /**
+   * @return a copy of the values of a {@code long} column, null values being 0
+   */
+  public long[] getLongs(int column) {
+    final long[] values = new long[rowCount];
+    final Object[] chunks = columns[column].chunks;
+    for (int offset = 0, i = 0; offset < rowCount; offset += CHUNK_SIZE, i++) {
+      System.arraycopy((long[]) chunks[i], 0, values, offset, Math.min(CHUNK_SIZE, rowCount - offset));
+    }
+    return values;
+  }
+
+  /**
+   * @return a copy of the values of a {@code double} column, null values being 0
+   */
+  public double[] getDoubles(int column) {
+    final double[] values = new double[rowCount];
+    final Object[] chunks = columns[column].chunks;
+    for (int offset = 0, i = 0; offset < rowCount; offset += CHUNK_SIZE, i++) {
+      System.arraycopy((double[]) chunks[i], 0, values, offset, Math.min(CHUNK_SIZE, rowCount - offset));
+    }
+    return values;
+  }
+
+  /**
+   * @return a copy of the values of an object column
+   */
+  public Object[] getObjects(int column) {
+    final Object[] values = new Object[rowCount];
+    final Object[] chunks = columns[column].chunks;
+    for (int offset = 0, i = 0; offset < rowCount; offset += CHUNK_SIZE, i++) {
+      System.arraycopy((Object[]) chunks[i], 0, values, offset, Math.min(CHUNK_SIZE, rowCount - offset));
+    }
+    return values;
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("Row " + row + " is out of bounds (" + rowCount + " rows)");
+    }
+  }
+
+  private static final class Column {
+
+    private final Class<?> type;
+    private Object[] chunks = new Object[4];
+    private long[][] nulls = new long[4][];
+
+    Column(Class<?> type) {
+      this.type = type;
+    }
+
+    void addChunk(int chunk, int capacity) {
+      if (chunk == chunks.length) {
+        chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        nulls = Arrays.copyOf(nulls, nulls.length * 2);
+      }
+      if (type == int.class) {
+        chunks[chunk] = new int[capacity];
+      } else if (type == long.class) {
+        chunks[chunk] = new long[capacity];
+      } else if (type == double.class) {
+        chunks[chunk] = new double[capacity];
+      } else {
+        chunks[chunk] = new Object[capacity];
+      }
+      nulls[chunk] = new long[capacity >>> 6];
+    }
+
+    void growChunk(int chunk, int capacity) {
+      final Object values = chunks[chunk];
+      if (type == int.class) {
+        chunks[chunk] = Arrays.copyOf((int[]) values, capacity);
+      } else if (type == long.class) {
+        chunks[chunk] = Arrays.copyOf((long[]) values, capacity);
+      } else if (type == double.class) {
+        chunks[chunk] = Arrays.copyOf((double[]) values, capacity);
+      } else {
+        chunks[chunk] = Arrays.copyOf((Object[]) values, capacity);
+      }
+      nulls[chunk] = Arrays.copyOf(nulls[chunk], capacity >>> 6);
+    }
+  }
+
+}
@@ -0,0 +1,310 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map result of a row whose keys are shared by all the rows of a result set.
+ * <p>
+ * The keys and their positions are held by a {@link Schema} shared by the rows, each row only holds an array of
+ * values. A key of the schema without value in a row is not contained in the map, exactly as if it had not been put
+ * in a {@link HashMap}. The map is modifiable: keys that are not in the schema are kept in a separate map.
+ * Entries are iterated in the order of the schema, followed by the other keys.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+public class RowMap extends AbstractMap<String, Object> implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private enum Absent {
+    VALUE
+  }
+
+  private final Schema schema;
+  private final Object[] values;
+  private int size;
+  private Map<String, Object> otherValues;
+  private transient Set<Entry<String, Object>> entrySet;
+
+  public RowMap(Schema schema) {
+    this.schema = schema;
+    this.values = new Object[schema.keys.length];
+    Arrays.fill(values, Absent.VALUE);
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  @Override
+  public int size() {
+    return size + (otherValues == null ? 0 : otherValues.size());
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    final int index = schema.indexOf(key);
+    if (index != -1) {
+      return values[index] != Absent.VALUE;
+    }
+    return otherValues != null && otherValues.containsKey(key);
+  }
+
+  @Override
+  public Object get(Object key) {
+    final int index = schema.indexOf(key);
+    if (index != -1) {
+      final Object value = values[index];
+      return value == Absent.VALUE ? null : value;
+    }
+    return otherValues == null ? null : otherValues.get(key);
+  }
+
+  @Override
+  public Object put(String key, Object value) {
+    final int index = schema.indexOf(key);
+    if (index != -1) {
+      return set(index, value);
+    }
+    if (otherValues == null) {
+      otherValues = new HashMap<>();
+    }
+    return otherValues.put(key, value);
+  }
+
+  /**
+   * Sets the value of the key at the given position of the schema.
+   *
+   * @param index the position of the key in the schema
+   * @param value the value, may be {@code null}
+   * @return the previous value
+   */
+  public Object set(int index, Object value) {
+    final Object previous = values[index];
+    values[index] = value;
+    if (previous == Absent.VALUE) {
+      size++;
+      return null;
+    }
+    return previous;
+  }
+
+  @Override
+  public Object remove(Object key) {
+    final int index = schema.indexOf(key);
+    if (index != -1) {
+      return unset(index);
+    }
+    return otherValues == null ? null : otherValues.remove(key);
+  }
+
+  private Object unset(int index) {
+    final Object previous = values[index];
+    if (previous == Absent.VALUE) {
+      return null;
+    }
+    values[index] = Absent.VALUE;
+    size--;
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(values, Absent.VALUE);
+    size = 0;
+    otherValues = null;
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  private class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+    @Override
+    public int size() {
+      return RowMap.this.size();
+    }
+
+    @Override
+    public void clear() {
+      RowMap.this.clear();
+    }
+
+    @Override
+    public Iterator<Entry<String, Object>> iterator() {
+      return new EntryIterator();
+    }
+  }
+
+  private class EntryIterator implements Iterator<Entry<String, Object>> {
+
+    private int next = advance(0);
+    private int current = -1;
+    private Iterator<Entry<String, Object>> otherIterator;
+
+    private int advance(int index) {
+      while (index < values.length && values[index] == Absent.VALUE) {
+        index++;
+      }
+      return index;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next < values.length) {
+        return true;
+      }
+      if (otherIterator == null) {
+        otherIterator = otherValues == null ? Collections.<Entry<String, Object>>emptyIterator() : otherValues.entrySet().iterator();
+      }
+      return otherIterator.hasNext();
+    }
+
+    @Override
+    public Entry<String, Object> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (next < values.length) {
+        current = next;
+        next = advance(next + 1);
+        return new RowEntry(current);
+      }
+      current = -1;
+      return otherIterator.next();
+    }
+
+    @Override
+    public void remove() {
+      if (current != -1) {
+        if (values[current] == Absent.VALUE) {
+          throw new IllegalStateException();
+        }
+        unset(current);
+      } else if (otherIterator != null) {
+        otherIterator.remove();
+      } else {
+        throw new IllegalStateException();
+      }
+    }
+  }
+
+  private class RowEntry implements Entry<String, Object> {
+
+    private final int index;
+
+    RowEntry(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public String getKey() {
+      return schema.keys[index];
+    }
+
+    @Override
+    public Object getValue() {
+      final Object value = values[index];
+      return value == Absent.VALUE ? null : value;
+    }
+
+    @Override
+    public Object setValue(Object value) {
+      return set(index, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      final Entry<?, ?> e = (Entry<?, ?>) o;
+      final Object value = getValue();
+      return getKey().equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+    }
+
+    @Override
+    public int hashCode() {
+      final Object value = getValue();
+      return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+
+  /**
+   * Keys shared by the rows of a result set, with their positions.
+   */
+  public static final class Schema implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] keys;
+    private final Map<String, Integer> indexes;
+
+    /**
+     * @param keys the keys, duplicates being ignored
+     */
+    public Schema(List<String> keys) {
+      final Map<String, Integer> indexes = new HashMap<>();
+      for (String key : keys) {
+        if (!indexes.containsKey(key)) {
+          indexes.put(key, indexes.size());
+        }
+      }
+      this.keys = new String[indexes.size()];
+      for (Entry<String, Integer> entry : indexes.entrySet()) {
+        this.keys[entry.getValue()] = entry.getKey();
+      }
+      this.indexes = indexes;
+    }
+
+    public List<String> getKeys() {
+      return Collections.unmodifiableList(Arrays.asList(keys));
+    }
+
+    /**
+     * @param key a key
+     * @return the position of the key, or -1 if the key is not in the schema
+     */
+    public int indexOf(Object key) {
+      final Integer index = indexes.get(key);
+      return index == null ? -1 : index;
+    }
+  }
+
+}
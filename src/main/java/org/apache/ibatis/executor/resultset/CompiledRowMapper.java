@@ -0,0 +1,244 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.lang.UsesJava7;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.PrimitiveSetterInvoker;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.PrimitiveTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Maps the rows of a result set of a known shape to instances of a simple result map.
+ * <p>
+ * The columns are resolved once to their index, type handler and setter, so that mapping a row reads the columns
+ * by index and calls the setters directly, without MetaObject, column name lookups nor type handler resolution.
+ * Primitive properties read by a {@link PrimitiveTypeHandler} are set without boxing their values.
+ * It is only built for result maps without constructor mappings, nested mappings nor nested property paths,
+ * see {@link DefaultResultSetHandler}.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+public class CompiledRowMapper {
+
+  /**
+   * Marks a result map and result set shape that cannot be compiled.
+   */
+  static final CompiledRowMapper NOT_COMPILABLE = new CompiledRowMapper(Object.class, null, false);
+
+  private final Class<?> type;
+  private final ObjectFactory objectFactory;
+  private final MethodHandle constructor;
+  private final boolean returnInstanceForEmptyRow;
+  private final List<ColumnMapping> columnMappings = new ArrayList<>();
+
+  private static class ColumnMapping {
+    private final int columnIndex;
+    private final TypeHandler<?> typeHandler;
+    private final String property;
+    private final Invoker setter;
+    private final boolean callSetterOnNull;
+    // not null when the value is read and set as a primitive
+    private final PrimitiveSetterInvoker primitiveSetter;
+    private final Class<?> primitiveType;
+
+    ColumnMapping(int columnIndex, TypeHandler<?> typeHandler, String property, Invoker setter, boolean callSetterOnNull) {
+      this.columnIndex = columnIndex;
+      this.typeHandler = typeHandler;
+      this.property = property;
+      this.setter = setter;
+      this.callSetterOnNull = callSetterOnNull;
+      // the method handles of the setter are only created for the properties of compiled row mappers
+      this.primitiveSetter = readsPrimitive(typeHandler, setter) ? PrimitiveSetterInvoker.forSetter(setter) : null;
+      this.primitiveType = primitiveSetter != null ? setter.getType() : null;
+    }
+  }
+
+  public CompiledRowMapper(Class<?> type, ObjectFactory objectFactory, boolean returnInstanceForEmptyRow) {
+    this.type = type;
+    this.objectFactory = objectFactory;
+    this.constructor = objectFactory != null && objectFactory.getClass() == DefaultObjectFactory.class ? findConstructor(type) : null;
+    this.returnInstanceForEmptyRow = returnInstanceForEmptyRow;
+  }
+
+  private static MethodHandle findConstructor(Class<?> type) {
+    try {
+      Constructor<?> constructor = type.getDeclaredConstructor();
+      if (!constructor.isAccessible()) {
+        constructor.setAccessible(true);
+      }
+      return MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+    } catch (Exception e) {
+      // let the object factory report the error
+      return null;
+    }
+  }
+
+  /**
+   * Sets a property from the given column, in the order of the calls.
+   *
+   * @param columnIndex the index of the column, starting at 1
+   * @param typeHandler the type handler reading the column
+   * @param property the name of a property of the result type
+   * @param setter the setter of the property
+   * @param callSetterOnNull whether the setter is called with null values
+   */
+  public void addColumnMapping(int columnIndex, TypeHandler<?> typeHandler, String property, Invoker setter, boolean callSetterOnNull) {
+    columnMappings.add(new ColumnMapping(columnIndex, typeHandler, property, setter, callSetterOnNull));
+  }
+
+  private static boolean readsPrimitive(TypeHandler<?> typeHandler, Invoker setter) {
+    if (!(typeHandler instanceof PrimitiveTypeHandler)
+        || ((PrimitiveTypeHandler) typeHandler).getPrimitiveType() != setter.getType()) {
+      return false;
+    }
+    // a subclass that changes how values are read must not be bypassed
+    final Class<?> primitiveType = setter.getType();
+    final String name = primitiveType.getName();
+    final String primitiveGetter = "get" + Character.toUpperCase(name.charAt(0)) + name.substring(1) + "Result";
+    try {
+      final Class<?> handlerType = typeHandler.getClass();
+      return handlerType.getMethod("getResult", ResultSet.class, int.class).getDeclaringClass() == BaseTypeHandler.class
+          && handlerType.getMethod("getNullableResult", ResultSet.class, int.class).getDeclaringClass()
+          == handlerType.getMethod(primitiveGetter, ResultSet.class, int.class).getDeclaringClass();
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  public Object map(ResultSet rs) throws SQLException {
+    final Object rowValue = newInstance();
+    final Object[] args = new Object[1];
+    boolean foundValues = false;
+    for (int i = 0, n = columnMappings.size(); i < n; i++) {
+      final ColumnMapping mapping = columnMappings.get(i);
+      if (mapping.primitiveType != null) {
+        foundValues = mapPrimitive(rs, rowValue, mapping) || foundValues;
+        continue;
+      }
+      final Object value = mapping.typeHandler.getResult(rs, mapping.columnIndex);
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || mapping.callSetterOnNull) {
+        args[0] = value;
+        setValue(rowValue, mapping, args);
+      }
+    }
+    return foundValues || returnInstanceForEmptyRow ? rowValue : null;
+  }
+
+  /**
+   * @return false if the column is SQL NULL, in which case the property is not set
+   */
+  private boolean mapPrimitive(ResultSet rs, Object rowValue, ColumnMapping mapping) throws SQLException {
+    final TypeHandler<?> typeHandler = mapping.typeHandler;
+    final PrimitiveSetterInvoker setter = mapping.primitiveSetter;
+    final Class<?> type = mapping.primitiveType;
+    final int columnIndex = mapping.columnIndex;
+    try {
+      if (type == int.class) {
+        final int value = ((PrimitiveTypeHandler.OfInt) typeHandler).getIntResult(rs, columnIndex);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        setter.setInt(rowValue, value);
+      } else if (type == long.class) {
+        final long value = ((PrimitiveTypeHandler.OfLong) typeHandler).getLongResult(rs, columnIndex);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        setter.setLong(rowValue, value);
+      } else if (type == double.class) {
+        final double value = ((PrimitiveTypeHandler.OfDouble) typeHandler).getDoubleResult(rs, columnIndex);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        setter.setDouble(rowValue, value);
+      } else if (type == float.class) {
+        final float value = ((PrimitiveTypeHandler.OfFloat) typeHandler).getFloatResult(rs, columnIndex);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        setter.setFloat(rowValue, value);
+      } else if (type == short.class) {
+        final short value = ((PrimitiveTypeHandler.OfShort) typeHandler).getShortResult(rs, columnIndex);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        setter.setShort(rowValue, value);
+      } else if (type == byte.class) {
+        final byte value = ((PrimitiveTypeHandler.OfByte) typeHandler).getByteResult(rs, columnIndex);
+        if (value == 0 && rs.wasNull()) {
+          return false;
+        }
+        setter.setByte(rowValue, value);
+      } else {
+        final boolean value = ((PrimitiveTypeHandler.OfBoolean) typeHandler).getBooleanResult(rs, columnIndex);
+        if (!value && rs.wasNull()) {
+          return false;
+        }
+        setter.setBoolean(rowValue, value);
+      }
+      return true;
+    } catch (SQLException e) {
+      throw new ResultMapException("Error attempting to get column #" + columnIndex + " from result set.  Cause: " + e, e);
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not set property '" + mapping.property + "' of '" + rowValue.getClass() + "' Cause: " + t.toString(), t);
+    }
+  }
+
+  @UsesJava7
+  private Object newInstance() {
+    if (constructor == null) {
+      return objectFactory.create(type);
+    }
+    try {
+      return (Object) constructor.invokeExact();
+    } catch (Throwable t) {
+      throw new ReflectionException("Error instantiating " + type + ". Cause: " + t, t);
+    }
+  }
+
+  private void setValue(Object rowValue, ColumnMapping mapping, Object[] args) {
+    try {
+      try {
+        mapping.setter.invoke(rowValue, args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not set property '" + mapping.property + "' of '" + rowValue.getClass() + "' with value '" + args[0] + "' Cause: " + t.toString(), t);
+    }
+  }
+
+}
@@ -0,0 +1,125 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Constructor of a result type without default constructor nor constructor mappings, whose arguments are
+ * the columns of the result set in order, with the type handlers resolved for each argument.
+ * <p>
+ * A binding is resolved once per result set layout, so the constructors of the result type are only scanned when
+ * the columns change. When the default object factory is used, the constructor is called through a method handle.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+final class ConstructorBinding {
+
+  private final Class<?> type;
+  private final List<Class<?>> parameterTypes;
+  private final int[] columnIndexes;
+  // a column name when the column is read by name
+  private final String[] columnNames;
+  private final TypeHandler<?>[] typeHandlers;
+  private final ObjectFactory objectFactory;
+  // null to create instances with the object factory
+  private final MethodHandle constructor;
+
+  ConstructorBinding(Constructor<?> constructor, int[] columnIndexes, String[] columnNames, TypeHandler<?>[] typeHandlers,
+      ObjectFactory objectFactory) {
+    this.type = constructor.getDeclaringClass();
+    this.parameterTypes = Collections.unmodifiableList(Arrays.<Class<?>>asList(constructor.getParameterTypes()));
+    this.columnIndexes = columnIndexes;
+    this.columnNames = columnNames;
+    this.typeHandlers = typeHandlers;
+    this.objectFactory = objectFactory;
+    this.constructor = objectFactory.getClass() == DefaultObjectFactory.class ? unreflect(constructor) : null;
+  }
+
+  private static MethodHandle unreflect(Constructor<?> constructor) {
+    try {
+      if (!constructor.isAccessible()) {
+        constructor.setAccessible(true);
+      }
+      final int parameterCount = constructor.getParameterTypes().length;
+      return MethodHandles.lookup().unreflectConstructor(constructor)
+          .asSpreader(Object[].class, parameterCount)
+          .asType(MethodType.methodType(Object.class, Object[].class));
+    } catch (Exception e) {
+      // let the object factory report the error
+      return null;
+    }
+  }
+
+  ObjectFactory getObjectFactory() {
+    return objectFactory;
+  }
+
+  /**
+   * Creates an instance from the current row.
+   *
+   * @param rs the result set
+   * @param constructorArgTypes receives the types of the arguments
+   * @param constructorArgs receives the values of the arguments
+   * @return the instance, or {@code null} if all the columns are null
+   */
+  Object create(ResultSet rs, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) throws SQLException {
+    final Object[] args = new Object[columnIndexes.length];
+    boolean foundValues = false;
+    for (int i = 0; i < args.length; i++) {
+      args[i] = columnNames[i] == null ? typeHandlers[i].getResult(rs, columnIndexes[i]) : typeHandlers[i].getResult(rs, columnNames[i]);
+      foundValues = args[i] != null || foundValues;
+    }
+    constructorArgTypes.addAll(parameterTypes);
+    constructorArgs.addAll(Arrays.asList(args));
+    if (!foundValues) {
+      return null;
+    }
+    if (constructor == null) {
+      return objectFactory.create(type, constructorArgTypes, constructorArgs);
+    }
+    try {
+      return (Object) constructor.invokeExact(args);
+    } catch (Throwable t) {
+      StringBuilder argTypes = new StringBuilder();
+      StringBuilder argValues = new StringBuilder();
+      for (int i = 0; i < args.length; i++) {
+        if (i > 0) {
+          argTypes.append(",");
+          argValues.append(",");
+        }
+        argTypes.append(parameterTypes.get(i).getSimpleName());
+        argValues.append(String.valueOf(args[i]));
+      }
+      throw new ReflectionException("Error instantiating " + type + " with invalid types (" + argTypes + ") or values (" + argValues + "). Cause: " + t, t);
+    }
+  }
+
+}
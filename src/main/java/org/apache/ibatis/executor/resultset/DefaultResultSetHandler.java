@@ -26,9 +26,11 @@ import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.ColumnarResult;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.executor.result.RowMap;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.Discriminator;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -39,22 +41,31 @@ import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.BaseTypeHandler;
 import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.PrimitiveTypeHandler;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnknownTypeHandler;
 
 import java.lang.reflect.Constructor;
 import java.sql.CallableStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -84,39 +95,47 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final ReflectorFactory reflectorFactory;
 
   // nested resultmaps
-  private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
+  private final Map<RowKey, Object> nestedResultObjects = new HashMap<>();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
 
+  // row key of the current main result of an ordered statement, when identified by a single integral column
+  private RowKey currentRowKey;
+  private ResultMap currentRowKeyResultMap;
+  private long currentRowKeyId;
+
   // multiple resultsets
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
+  private ResultSetLayout autoMappingsLayout;
 
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
+  // rows read by handleResultSets or by a cursor, recorded for the adaptive fetch size
+  private int rowCount;
+
+  // index of the last result set read from the statement, to reuse its layout from the previous executions
+  private int resultSetIndex = -1;
+
+  // compact map results of the last result map and layout, schema is null if they do not apply
+  private ResultMap rowMapResultMap;
+  private ResultSetLayout rowMapLayout;
+  private RowMap.Schema rowMapSchema;
+  private List<UnMappedColumnAutoMapping> rowMapMappings;
+  private int[] rowMapIndexes;
+
+  // meta objects of the rows being mapped, reused from row to row
+  private final MetaObjectPool metaObjectPool;
+
   private static class PendingRelation {
     public MetaObject metaObject;
     public ResultMapping propertyMapping;
   }
 
-  private static class UnMappedColumnAutoMapping {
-    private final String column;
-    private final String property;
-    private final TypeHandler<?> typeHandler;
-    private final boolean primitive;
-
-    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
-      this.column = column;
-      this.property = property;
-      this.typeHandler = typeHandler;
-      this.primitive = primitive;
-    }
-  }
-
   public DefaultResultSetHandler(Executor executor, MappedStatement mappedStatement, ParameterHandler parameterHandler, ResultHandler<?> resultHandler, BoundSql boundSql,
                                  RowBounds rowBounds) {
     this.executor = executor;
@@ -129,6 +148,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     this.objectFactory = configuration.getObjectFactory();
     this.reflectorFactory = configuration.getReflectorFactory();
     this.resultHandler = resultHandler;
+    this.metaObjectPool = new MetaObjectPool(configuration);
   }
 
   //
@@ -185,6 +205,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
     int resultSetCount = 0;
     ResultSetWrapper rsw = getFirstResultSet(stmt);
+    final int columnCount = rsw != null ? rsw.getColumnNames().size() : 0;
 
     List<ResultMap> resultMaps = mappedStatement.getResultMaps();
     int resultMapCount = resultMaps.size();
@@ -212,6 +233,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    recordAdaptiveFetchSize(columnCount);
     return collapseSingleResultList(multipleResults);
   }
 
@@ -230,7 +252,27 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
-    return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
+    Integer batchSize = configuration.getDefaultCursorBatchSize();
+    if (batchSize == null) {
+      return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
+    }
+    return new DefaultCursor<>(this, resultMap, rsw, rowBounds, batchSize);
+  }
+
+  /**
+   * Records the rows read by a cursor for the adaptive fetch size. Called once, when the cursor is closed or exhausted.
+   *
+   * @param rsw the result set of the cursor
+   * @since 3.5.0
+   */
+  public void handleCursorClosed(ResultSetWrapper rsw) {
+    recordAdaptiveFetchSize(rsw.getColumnNames().size());
+  }
+
+  private void recordAdaptiveFetchSize(int columnCount) {
+    if (configuration.isAdaptiveFetchSizeEnabled()) {
+      mappedStatement.getAdaptiveFetchSize().record(rowCount, columnCount);
+    }
   }
 
   private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
@@ -247,7 +289,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
-    return rs != null ? new ResultSetWrapper(rs, configuration) : null;
+    return rs != null ? newResultSetWrapper(rs) : null;
   }
 
   private ResultSetWrapper getNextResultSet(Statement stmt) {
@@ -260,7 +302,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           if (rs == null) {
             return getNextResultSet(stmt);
           } else {
-            return new ResultSetWrapper(rs, configuration);
+            return newResultSetWrapper(rs);
           }
         }
       }
@@ -270,6 +312,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return null;
   }
 
+  private ResultSetWrapper newResultSetWrapper(ResultSet rs) throws SQLException {
+    final int index = ++resultSetIndex;
+    final ResultSetLayout cachedLayout = mappedStatement.getResultSetLayout(index);
+    final ResultSetWrapper rsw = new ResultSetWrapper(rs, configuration, cachedLayout);
+    if (rsw.getLayout() != cachedLayout) {
+      mappedStatement.setResultSetLayout(index, rsw.getLayout());
+    }
+    return rsw;
+  }
+
   private void closeResultSet(ResultSet rs) {
     try {
       if (rs != null) {
@@ -282,6 +334,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void cleanUpAfterHandlingResultSet() {
     nestedResultObjects.clear();
+    currentRowKey = null;
+    currentRowKeyResultMap = null;
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -320,7 +374,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   public void handleRowValues(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping) throws SQLException {
-    if (resultMap.hasNestedResultMaps()) {
+    if (resultMap.getType() == ColumnarResult.class) {
+      handleRowValuesForColumnarResult(rsw, resultHandler, rowBounds, parentMapping);
+    } else if (resultMap.hasNestedResultMaps()) {
       ensureNoRowBounds();
       checkResultHandler();
       handleRowValuesForNestedResultMap(rsw, resultMap, resultHandler, rowBounds, parentMapping);
@@ -348,9 +404,23 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       throws SQLException {
     DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
     skipRows(rsw.getResultSet(), rowBounds);
+    ResultMap compiledResultMap = null;
+    CompiledRowMapper rowMapper = null;
     while (shouldProcessMoreRows(resultContext, rowBounds) && rsw.getResultSet().next()) {
-      ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
-      Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
+      rowCount++;
+      ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw, resultMap, null);
+      if (configuration.isCompiledRowMappingEnabled() && discriminatedResultMap != compiledResultMap) {
+        rowMapper = getCompiledRowMapper(rsw, discriminatedResultMap);
+        compiledResultMap = discriminatedResultMap;
+      }
+      final Object rowValue;
+      if (rowMapper != null) {
+        rowValue = rowMapper.map(rsw.getResultSet());
+      } else if (configuration.isCompactMapResultsEnabled() && isCompactMapResult(rsw, discriminatedResultMap)) {
+        rowValue = getRowMapValue(rsw);
+      } else {
+        rowValue = getRowValue(rsw, discriminatedResultMap, null);
+      }
       storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
     }
   }
@@ -385,6 +455,89 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  //
+  // HANDLE ROWS FOR COLUMNAR RESULT
+  //
+
+  private void handleRowValuesForColumnarResult(ResultSetWrapper rsw, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping)
+      throws SQLException {
+    final ResultSet rs = rsw.getResultSet();
+    final List<String> columnNames = rsw.getColumnNames();
+    final int columnCount = columnNames.size();
+    final List<Class<?>> columnTypes = new ArrayList<>(columnCount);
+    final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[columnCount];
+    final ResultSetMetaData metaData = rs.getMetaData();
+    for (int i = 0; i < columnCount; i++) {
+      final String columnName = columnNames.get(i);
+      final Class<?> primitiveType = getColumnarPrimitiveType(rsw.getJdbcTypes().get(i), metaData, i + 1);
+      if (primitiveType != null) {
+        final TypeHandler<?> typeHandler = rsw.getTypeHandler(primitiveType == int.class ? Integer.class
+            : primitiveType == long.class ? Long.class : Double.class, columnName);
+        if (typeHandler instanceof PrimitiveTypeHandler && ((PrimitiveTypeHandler) typeHandler).getPrimitiveType() == primitiveType) {
+          columnTypes.add(primitiveType);
+          typeHandlers[i] = typeHandler;
+          continue;
+        }
+      }
+      columnTypes.add(Object.class);
+      typeHandlers[i] = rsw.getTypeHandler(Object.class, columnName);
+    }
+    final ColumnarResult columnarResult = new ColumnarResult(columnNames, columnTypes);
+    skipRows(rs, rowBounds);
+    while (columnarResult.getRowCount() < rowBounds.getLimit() && rs.next()) {
+      rowCount++;
+      columnarResult.addRow();
+      for (int i = 0; i < columnCount; i++) {
+        final Class<?> columnType = columnTypes.get(i);
+        if (columnType == int.class) {
+          final int value = ((PrimitiveTypeHandler.OfInt) typeHandlers[i]).getIntResult(rs, i + 1);
+          if (value == 0 && rs.wasNull()) {
+            columnarResult.setNull(i);
+          } else {
+            columnarResult.setInt(i, value);
+          }
+        } else if (columnType == long.class) {
+          final long value = ((PrimitiveTypeHandler.OfLong) typeHandlers[i]).getLongResult(rs, i + 1);
+          if (value == 0 && rs.wasNull()) {
+            columnarResult.setNull(i);
+          } else {
+            columnarResult.setLong(i, value);
+          }
+        } else if (columnType == double.class) {
+          final double value = ((PrimitiveTypeHandler.OfDouble) typeHandlers[i]).getDoubleResult(rs, i + 1);
+          if (value == 0 && rs.wasNull()) {
+            columnarResult.setNull(i);
+          } else {
+            columnarResult.setDouble(i, value);
+          }
+        } else {
+          final Object value = typeHandlers[i].getResult(rs, i + 1);
+          if (value == null) {
+            columnarResult.setNull(i);
+          } else {
+            columnarResult.setObject(i, value);
+          }
+        }
+      }
+    }
+    storeObject(resultHandler, new DefaultResultContext<>(), columnarResult, parentMapping, rs);
+  }
+
+  private Class<?> getColumnarPrimitiveType(JdbcType jdbcType, ResultSetMetaData metaData, int column) throws SQLException {
+    if (jdbcType == JdbcType.TINYINT || jdbcType == JdbcType.SMALLINT) {
+      return int.class;
+    } else if (jdbcType == JdbcType.INTEGER) {
+      // unsigned integers (e.g. INT UNSIGNED on MySQL) may exceed Integer.MAX_VALUE
+      return metaData.isSigned(column) ? int.class : long.class;
+    } else if (jdbcType == JdbcType.BIGINT) {
+      return metaData.isSigned(column) ? long.class : null;
+    } else if (jdbcType == JdbcType.REAL || jdbcType == JdbcType.FLOAT || jdbcType == JdbcType.DOUBLE) {
+      // DECIMAL and NUMERIC columns are stored as objects, as a double would lose their precision
+      return double.class;
+    }
+    return null;
+  }
+
   //
   // GET VALUE FROM ROW FOR SIMPLE RESULT MAP
   //
@@ -393,18 +546,134 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final ResultLoaderMap lazyLoader = new ResultLoaderMap();
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
     if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
-      final MetaObject metaObject = configuration.newMetaObject(rowValue);
+      final MetaObject metaObject = metaObjectPool.acquire(resultMap, rowValue);
       boolean foundValues = this.useConstructorMappings;
-      if (shouldApplyAutomaticMappings(resultMap, false)) {
-        foundValues = applyAutomaticMappings(rsw, resultMap, metaObject, columnPrefix) || foundValues;
+      try {
+        if (shouldApplyAutomaticMappings(resultMap, false)) {
+          foundValues = applyAutomaticMappings(rsw, resultMap, metaObject, columnPrefix) || foundValues;
+        }
+        foundValues = applyPropertyMappings(rsw, resultMap, metaObject, lazyLoader, columnPrefix) || foundValues;
+      } finally {
+        metaObjectPool.release(metaObject);
       }
-      foundValues = applyPropertyMappings(rsw, resultMap, metaObject, lazyLoader, columnPrefix) || foundValues;
       foundValues = lazyLoader.size() > 0 || foundValues;
       rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
     }
     return rowValue;
   }
 
+  //
+  // COMPACT MAP RESULTS
+  //
+
+  private boolean isCompactMapResult(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    if (resultMap != rowMapResultMap || rsw.getLayout() != rowMapLayout) {
+      rowMapResultMap = resultMap;
+      rowMapLayout = rsw.getLayout();
+      rowMapSchema = null;
+      if (resultMap.getType() == Map.class && resultMap.getResultMappings().isEmpty()
+          && shouldApplyAutomaticMappings(resultMap, false)
+          && objectFactory.getClass() == DefaultObjectFactory.class
+          && configuration.getObjectWrapperFactory() instanceof DefaultObjectWrapperFactory
+          && !hasTypeHandlerForResultObject(rsw, Map.class)) {
+        final MetaObject metaObject = configuration.newMetaObject(objectFactory.create(Map.class));
+        final List<UnMappedColumnAutoMapping> mappings = createAutomaticMappings(rsw, resultMap, metaObject, null);
+        final List<String> keys = new ArrayList<>(mappings.size());
+        for (UnMappedColumnAutoMapping mapping : mappings) {
+          if (isNestedProperty(mapping.getProperty())) {
+            return false;
+          }
+          keys.add(mapping.getProperty());
+        }
+        final RowMap.Schema schema = new RowMap.Schema(keys);
+        rowMapIndexes = new int[mappings.size()];
+        for (int i = 0; i < rowMapIndexes.length; i++) {
+          rowMapIndexes[i] = schema.indexOf(keys.get(i));
+        }
+        rowMapMappings = mappings;
+        rowMapSchema = schema;
+      }
+    }
+    return rowMapSchema != null;
+  }
+
+  // same values as getRowValue with a HashMap
+  private Object getRowMapValue(ResultSetWrapper rsw) throws SQLException {
+    final RowMap rowValue = new RowMap(rowMapSchema);
+    boolean foundValues = false;
+    for (int i = 0; i < rowMapIndexes.length; i++) {
+      final UnMappedColumnAutoMapping mapping = rowMapMappings.get(i);
+      final Object value = getColumnValue(mapping.getTypeHandler(), rsw.getResultSet(), mapping.getColumnIndex(), mapping.getColumn());
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || configuration.isCallSettersOnNulls()) {
+        rowValue.set(rowMapIndexes[i], value);
+      }
+    }
+    return foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
+  }
+
+  //
+  // COMPILED ROW MAPPERS
+  //
+
+  private CompiledRowMapper getCompiledRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    final String key = resultMap.getId() + ":" + rsw.getColumnSignature();
+    CompiledRowMapper rowMapper = configuration.getCompiledRowMapper(key);
+    if (rowMapper == null) {
+      rowMapper = compileRowMapper(rsw, resultMap);
+      configuration.addCompiledRowMapper(key, rowMapper);
+    }
+    return rowMapper == CompiledRowMapper.NOT_COMPILABLE ? null : rowMapper;
+  }
+
+  private CompiledRowMapper compileRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    final Class<?> resultType = resultMap.getType();
+    final MetaClass metaType = MetaClass.forClass(resultType, reflectorFactory);
+    if (resultMap.hasNestedResultMaps() || resultMap.hasNestedQueries()
+        || !resultMap.getConstructorResultMappings().isEmpty()
+        || hasTypeHandlerForResultObject(rsw, resultType)
+        || resultType.isInterface() || !metaType.hasDefaultConstructor()
+        || Map.class.isAssignableFrom(resultType) || Collection.class.isAssignableFrom(resultType)
+        || !(configuration.getObjectWrapperFactory() instanceof DefaultObjectWrapperFactory)) {
+      return CompiledRowMapper.NOT_COMPILABLE;
+    }
+    final CompiledRowMapper rowMapper = new CompiledRowMapper(resultType, objectFactory, configuration.isReturnInstanceForEmptyRow());
+    // same order as getRowValue: automatic mappings first
+    if (shouldApplyAutomaticMappings(resultMap, false)) {
+      final MetaObject metaObject = configuration.newMetaObject(objectFactory.create(resultType));
+      for (UnMappedColumnAutoMapping mapping : createAutomaticMappings(rsw, resultMap, metaObject, null)) {
+        if (isNestedProperty(mapping.getProperty())) {
+          return CompiledRowMapper.NOT_COMPILABLE;
+        }
+        rowMapper.addColumnMapping(mapping.getColumnIndex(), mapping.getTypeHandler(), mapping.getProperty(),
+            metaType.getSetInvoker(mapping.getProperty()), configuration.isCallSettersOnNulls() && !mapping.isPrimitive());
+      }
+    }
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.isCompositeResult() || propertyMapping.getResultSet() != null) {
+        return CompiledRowMapper.NOT_COMPILABLE;
+      }
+      final String property = propertyMapping.getProperty();
+      final String column = propertyMapping.getColumn();
+      final int columnIndex = column == null ? -1 : rsw.getColumnIndex(column);
+      if (property == null || columnIndex == -1) {
+        continue;
+      }
+      if (isNestedProperty(property) || !metaType.hasSetter(property)) {
+        return CompiledRowMapper.NOT_COMPILABLE;
+      }
+      rowMapper.addColumnMapping(columnIndex, propertyMapping.getTypeHandler(), property,
+          metaType.getSetInvoker(property), configuration.isCallSettersOnNulls() && !metaType.getSetterType(property).isPrimitive());
+    }
+    return rowMapper;
+  }
+
+  private boolean isNestedProperty(String property) {
+    return property.indexOf('.') > -1 || property.indexOf('[') > -1;
+  }
+
   private boolean shouldApplyAutomaticMappings(ResultMap resultMap, boolean isNested) {
     if (resultMap.getAutoMapping() != null) {
       return resultMap.getAutoMapping();
@@ -423,19 +692,17 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
-    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    // index of the column of each mapping, -1 for nested result maps (the user added a column attribute, ignore it)
+    final int[] columnIndexes = rsw.getPropertyColumnIndexes(resultMap, columnPrefix);
     boolean foundValues = false;
     final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-    for (ResultMapping propertyMapping : propertyMappings) {
-      String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      if (propertyMapping.getNestedResultMapId() != null) {
-        // the user added a column attribute to a nested result map, ignore it
-        column = null;
-      }
+    for (int i = 0; i < columnIndexes.length; i++) {
+      final ResultMapping propertyMapping = propertyMappings.get(i);
+      final int columnIndex = columnIndexes[i];
       if (propertyMapping.isCompositeResult()
-          || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
+          || columnIndex != -1
           || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, columnIndex, lazyLoader, columnPrefix);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -456,8 +723,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
-      throws SQLException {
+  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, int columnIndex, ResultLoaderMap lazyLoader,
+      String columnPrefix) throws SQLException {
     if (propertyMapping.getNestedQueryId() != null) {
       return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     } else if (propertyMapping.getResultSet() != null) {
@@ -465,15 +732,34 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       return DEFERED;
     } else {
       final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
-      final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
+      return getColumnValue(typeHandler, rs, columnIndex, prependPrefix(propertyMapping.getColumn(), columnPrefix));
     }
   }
 
+  // by label unless enabled: type handlers written for older versions may only implement the label-based getter
+  private Object getColumnValue(TypeHandler<?> typeHandler, ResultSet rs, int columnIndex, String column) throws SQLException {
+    if (configuration.isColumnIndexReadsEnabled()) {
+      return typeHandler.getResult(rs, columnIndex);
+    }
+    return typeHandler.getResult(rs, column);
+  }
+
   private List<UnMappedColumnAutoMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
+    if (rsw.getLayout() != autoMappingsLayout) {
+      // the column indexes are only valid for the columns of the result set they were resolved for
+      autoMappingsCache.clear();
+      autoMappingsLayout = rsw.getLayout();
+    }
     final String mapKey = resultMap.getId() + ":" + columnPrefix;
     List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
     if (autoMapping == null) {
+      // resolved by a previous execution for the same columns
+      final String sharedKey = mapKey + ":" + rsw.getColumnSignature();
+      autoMapping = configuration.getAutoMappings(sharedKey);
+      if (autoMapping != null) {
+        autoMappingsCache.put(mapKey, autoMapping);
+        return autoMapping;
+      }
       autoMapping = new ArrayList<>();
       final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
       for (String columnName : unmappedColumnNames) {
@@ -495,7 +781,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           final Class<?> propertyType = metaObject.getSetterType(property);
           if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
             final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-            autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
+            autoMapping.add(new UnMappedColumnAutoMapping(columnName, rsw.getColumnIndex(columnName), property, typeHandler, propertyType.isPrimitive()));
           } else {
             configuration.getAutoMappingUnknownColumnBehavior()
                 .doAction(mappedStatement, columnName, property, propertyType);
@@ -505,7 +791,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
         }
       }
+      autoMapping = Collections.unmodifiableList(autoMapping);
       autoMappingsCache.put(mapKey, autoMapping);
+      configuration.addAutoMappings(sharedKey, autoMapping);
     }
     return autoMapping;
   }
@@ -515,13 +803,13 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value = getColumnValue(mapping.getTypeHandler(), rsw.getResultSet(), mapping.getColumnIndex(), mapping.getColumn());
         if (value != null) {
           foundValues = true;
         }
-        if (value != null || (configuration.isCallSettersOnNulls() && !mapping.primitive)) {
+        if (value != null || (configuration.isCallSettersOnNulls() && !mapping.isPrimitive())) {
           // gcode issue #377, call setter on nulls (value is not 'found')
-          metaObject.setValue(mapping.property, value);
+          metaObject.setValue(mapping.getProperty(), value);
         }
       }
     }
@@ -646,20 +934,55 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private Object createByConstructorSignature(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs,
                                               String columnPrefix) throws SQLException {
+    if (columnPrefix == null) {
+      ConstructorBinding constructorBinding = rsw.getLayout().getConstructorBinding(resultType);
+      if (constructorBinding == null || constructorBinding.getObjectFactory() != objectFactory) {
+        constructorBinding = bindConstructor(rsw, findConstructorBySignature(rsw, resultType));
+        rsw.getLayout().putConstructorBinding(resultType, constructorBinding);
+      }
+      return constructorBinding.create(rsw.getResultSet(), constructorArgTypes, constructorArgs);
+    }
+    return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, columnPrefix, findConstructorBySignature(rsw, resultType));
+  }
+
+  private Constructor<?> findConstructorBySignature(ResultSetWrapper rsw, Class<?> resultType) {
     final Constructor<?>[] constructors = resultType.getDeclaredConstructors();
     final Constructor<?> defaultConstructor = findDefaultConstructor(constructors);
     if (defaultConstructor != null) {
-      return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, columnPrefix, defaultConstructor);
+      return defaultConstructor;
     } else {
       for (Constructor<?> constructor : constructors) {
         if (allowedConstructorUsingTypeHandlers(constructor, rsw.getJdbcTypes())) {
-          return createUsingConstructor(rsw, resultType, constructorArgTypes, constructorArgs, columnPrefix, constructor);
+          return constructor;
         }
       }
     }
     throw new ExecutorException("No constructor found in " + resultType.getName() + " matching " + rsw.getClassNames());
   }
 
+  private ConstructorBinding bindConstructor(ResultSetWrapper rsw, Constructor<?> constructor) {
+    final Class<?>[] parameterTypes = constructor.getParameterTypes();
+    final int[] columnIndexes = new int[parameterTypes.length];
+    final String[] columnNames = new String[parameterTypes.length];
+    final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[parameterTypes.length];
+    for (int i = 0; i < parameterTypes.length; i++) {
+      String columnName = rsw.getColumnNames().get(i);
+      columnIndexes[i] = i + 1;
+      typeHandlers[i] = rsw.getTypeHandler(parameterTypes[i], columnName);
+      // the arguments are bound by position, which only the type handlers of MyBatis are known to read the same way
+      if (!configuration.isColumnIndexReadsEnabled() && !isBuiltInTypeHandler(typeHandlers[i])) {
+        columnNames[i] = columnName;
+      }
+    }
+    return new ConstructorBinding(constructor, columnIndexes, columnNames, typeHandlers, objectFactory);
+  }
+
+  private static boolean isBuiltInTypeHandler(TypeHandler<?> typeHandler) {
+    // UnknownTypeHandler delegates to the type handler resolved for the column, which may be any
+    return typeHandler instanceof BaseTypeHandler && !(typeHandler instanceof UnknownTypeHandler)
+        && typeHandler.getClass().getName().startsWith(BaseTypeHandler.class.getPackage().getName() + ".");
+  }
+
   private Object createUsingConstructor(ResultSetWrapper rsw, Class<?> resultType, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, String columnPrefix, Constructor<?> constructor) throws SQLException {
     boolean foundValues = false;
     for (int i = 0; i < constructor.getParameterTypes().length; i++) {
@@ -808,28 +1131,48 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   public ResultMap resolveDiscriminatedResultMap(ResultSet rs, ResultMap resultMap, String columnPrefix) throws SQLException {
-    Set<String> pastDiscriminators = new HashSet<>();
+    return resolveDiscriminatedResultMap(rs, null, resultMap, columnPrefix);
+  }
+
+  private ResultMap resolveDiscriminatedResultMap(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    return resolveDiscriminatedResultMap(rsw.getResultSet(), rsw.getLayout(), resultMap, columnPrefix);
+  }
+
+  private ResultMap resolveDiscriminatedResultMap(ResultSet rs, ResultSetLayout layout, ResultMap resultMap, String columnPrefix) throws SQLException {
+    // only allocated for chained discriminators
+    Set<ResultMap> pastResultMaps = null;
     Discriminator discriminator = resultMap.getDiscriminator();
     while (discriminator != null) {
-      final Object value = getDiscriminatorValue(rs, discriminator, columnPrefix);
-      final String discriminatedMapId = discriminator.getMapIdFor(String.valueOf(value));
-      if (configuration.hasResultMap(discriminatedMapId)) {
-        resultMap = configuration.getResultMap(discriminatedMapId);
-        Discriminator lastDiscriminator = discriminator;
-        discriminator = resultMap.getDiscriminator();
-        if (discriminator == lastDiscriminator || !pastDiscriminators.add(discriminatedMapId)) {
-          break;
-        }
-      } else {
+      final Object value = getDiscriminatorValue(rs, layout, discriminator, columnPrefix);
+      final ResultMap discriminatedResultMap = discriminator.getResultMapFor(value);
+      if (discriminatedResultMap == null) {
+        break;
+      }
+      resultMap = discriminatedResultMap;
+      Discriminator lastDiscriminator = discriminator;
+      discriminator = resultMap.getDiscriminator();
+      if (discriminator == null || discriminator == lastDiscriminator) {
+        break;
+      }
+      if (pastResultMaps == null) {
+        pastResultMaps = new HashSet<>();
+      }
+      if (!pastResultMaps.add(resultMap)) {
         break;
       }
     }
     return resultMap;
   }
 
-  private Object getDiscriminatorValue(ResultSet rs, Discriminator discriminator, String columnPrefix) throws SQLException {
+  private Object getDiscriminatorValue(ResultSet rs, ResultSetLayout layout, Discriminator discriminator, String columnPrefix) throws SQLException {
     final ResultMapping resultMapping = discriminator.getResultMapping();
     final TypeHandler<?> typeHandler = resultMapping.getTypeHandler();
+    if (layout != null && configuration.isColumnIndexReadsEnabled()) {
+      final int columnIndex = layout.getDiscriminatorColumnIndex(discriminator, columnPrefix);
+      if (columnIndex != -1) {
+        return typeHandler.getResult(rs, columnIndex);
+      }
+    }
     return typeHandler.getResult(rs, prependPrefix(resultMapping.getColumn(), columnPrefix));
   }
 
@@ -849,8 +1192,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     skipRows(rsw.getResultSet(), rowBounds);
     Object rowValue = previousRowValue;
     while (shouldProcessMoreRows(resultContext, rowBounds) && rsw.getResultSet().next()) {
-      final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
-      final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
+      rowCount++;
+      final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw, resultMap, null);
+      final RowKey rowKey = mappedStatement.isResultOrdered()
+          ? createOrderedRowKey(discriminatedResultMap, rsw)
+          : createRowKey(discriminatedResultMap, rsw, null, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
       if (mappedStatement.isResultOrdered()) {
@@ -878,31 +1224,39 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
 
-  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, CacheKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
+  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, RowKey combinedKey, String columnPrefix, Object partialObject) throws SQLException {
     final String resultMapId = resultMap.getId();
     Object rowValue = partialObject;
     if (rowValue != null) {
-      final MetaObject metaObject = configuration.newMetaObject(rowValue);
-      putAncestor(rowValue, resultMapId);
-      applyNestedResultMappings(rsw, resultMap, metaObject, columnPrefix, combinedKey, false);
-      ancestorObjects.remove(resultMapId);
+      final MetaObject metaObject = metaObjectPool.acquire(resultMap, rowValue);
+      try {
+        putAncestor(rowValue, resultMapId);
+        applyNestedResultMappings(rsw, resultMap, metaObject, columnPrefix, combinedKey, false);
+        ancestorObjects.remove(resultMapId);
+      } finally {
+        metaObjectPool.release(metaObject);
+      }
     } else {
       final ResultLoaderMap lazyLoader = new ResultLoaderMap();
       rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
       if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
-        final MetaObject metaObject = configuration.newMetaObject(rowValue);
+        final MetaObject metaObject = metaObjectPool.acquire(resultMap, rowValue);
         boolean foundValues = this.useConstructorMappings;
-        if (shouldApplyAutomaticMappings(resultMap, true)) {
-          foundValues = applyAutomaticMappings(rsw, resultMap, metaObject, columnPrefix) || foundValues;
+        try {
+          if (shouldApplyAutomaticMappings(resultMap, true)) {
+            foundValues = applyAutomaticMappings(rsw, resultMap, metaObject, columnPrefix) || foundValues;
+          }
+          foundValues = applyPropertyMappings(rsw, resultMap, metaObject, lazyLoader, columnPrefix) || foundValues;
+          putAncestor(rowValue, resultMapId);
+          foundValues = applyNestedResultMappings(rsw, resultMap, metaObject, columnPrefix, combinedKey, true) || foundValues;
+          ancestorObjects.remove(resultMapId);
+        } finally {
+          metaObjectPool.release(metaObject);
         }
-        foundValues = applyPropertyMappings(rsw, resultMap, metaObject, lazyLoader, columnPrefix) || foundValues;
-        putAncestor(rowValue, resultMapId);
-        foundValues = applyNestedResultMappings(rsw, resultMap, metaObject, columnPrefix, combinedKey, true) || foundValues;
-        ancestorObjects.remove(resultMapId);
         foundValues = lazyLoader.size() > 0 || foundValues;
         rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
       }
-      if (combinedKey != CacheKey.NULL_CACHE_KEY) {
+      if (combinedKey != RowKey.NULL) {
         nestedResultObjects.put(combinedKey, rowValue);
       }
     }
@@ -917,14 +1271,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // NESTED RESULT MAP (JOIN MAPPING)
   //
 
-  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, CacheKey parentRowKey, boolean newObject) {
+  private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String parentPrefix, RowKey parentRowKey, boolean newObject) {
     boolean foundValues = false;
     for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
       final String nestedResultMapId = resultMapping.getNestedResultMapId();
       if (nestedResultMapId != null && resultMapping.getResultSet() == null) {
         try {
           final String columnPrefix = getColumnPrefix(parentPrefix, resultMapping);
-          final ResultMap nestedResultMap = getNestedResultMap(rsw.getResultSet(), nestedResultMapId, columnPrefix);
+          final ResultMap nestedResultMap = getNestedResultMap(rsw, nestedResultMapId, columnPrefix);
           if (resultMapping.getColumnPrefix() == null) {
             // try to fill circular reference only when columnPrefix
             // is not specified for the nested result map (issue #215)
@@ -936,8 +1290,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               continue;
             }
           }
-          final CacheKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
-          final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
+          final RowKey combinedKey = createRowKey(nestedResultMap, rsw, columnPrefix, parentRowKey);
           Object rowValue = nestedResultObjects.get(combinedKey);
           boolean knownValue = rowValue != null;
           instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject); // mandatory
@@ -989,46 +1342,69 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return true;
   }
 
-  private ResultMap getNestedResultMap(ResultSet rs, String nestedResultMapId, String columnPrefix) throws SQLException {
+  private ResultMap getNestedResultMap(ResultSetWrapper rsw, String nestedResultMapId, String columnPrefix) throws SQLException {
     ResultMap nestedResultMap = configuration.getResultMap(nestedResultMapId);
-    return resolveDiscriminatedResultMap(rs, nestedResultMap, columnPrefix);
+    return resolveDiscriminatedResultMap(rsw, nestedResultMap, columnPrefix);
   }
 
   //
   // UNIQUE RESULT KEY
   //
 
-  private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
-    final CacheKey cacheKey = new CacheKey();
-    cacheKey.update(resultMap.getId());
+  private RowKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix, RowKey parentRowKey) throws SQLException {
+    RowKey.Columns columns = rsw.getLayout().getRowKeyColumns(resultMap, columnPrefix);
+    if (columns == null) {
+      columns = createRowKeyColumns(resultMap, rsw, columnPrefix);
+      rsw.getLayout().putRowKeyColumns(resultMap, columnPrefix, columns);
+    }
+    return columns.createRowKey(rsw.getResultSet(), resultMap.getId(), columnPrefix, parentRowKey,
+        configuration.isReturnInstanceForEmptyRow());
+  }
+
+  /**
+   * Rows of an ordered statement only have to be compared with the current main result.
+   * When its row key is a single integral column, the column is compared as a {@code long}
+   * and the row key is only built once per main result instead of once per row.
+   */
+  private RowKey createOrderedRowKey(ResultMap resultMap, ResultSetWrapper rsw) throws SQLException {
+    final int columnIndex = rsw.getLayout().getIntegralRowKeyColumnIndex(resultMap);
+    if (columnIndex != -1) {
+      final ResultSet rs = rsw.getResultSet();
+      final long id = rs.getLong(columnIndex);
+      if (!rs.wasNull()) {
+        if (currentRowKey == null || currentRowKeyResultMap != resultMap || currentRowKeyId != id) {
+          currentRowKey = createRowKey(resultMap, rsw, null, null);
+          currentRowKeyResultMap = resultMap;
+          currentRowKeyId = id;
+        }
+        return currentRowKey;
+      }
+    }
+    currentRowKey = null;
+    return createRowKey(resultMap, rsw, null, null);
+  }
+
+  private RowKey.Columns createRowKeyColumns(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+    final List<Integer> columnIndexes = new ArrayList<>();
+    final List<String> columnNames = new ArrayList<>();
+    final List<TypeHandler<?>> typeHandlers = new ArrayList<>();
     List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
     if (resultMappings.isEmpty()) {
       if (Map.class.isAssignableFrom(resultMap.getType())) {
-        createRowKeyForMap(rsw, cacheKey);
+        addRowKeyColumnsForMap(rsw, columnIndexes, columnNames, typeHandlers);
       } else {
-        createRowKeyForUnmappedProperties(resultMap, rsw, cacheKey, columnPrefix);
+        addRowKeyColumnsForUnmappedProperties(resultMap, rsw, columnPrefix, columnIndexes, columnNames, typeHandlers);
       }
     } else {
-      createRowKeyForMappedProperties(resultMap, rsw, cacheKey, resultMappings, columnPrefix);
+      addRowKeyColumnsForMappedProperties(resultMap, rsw, resultMappings, columnPrefix, columnIndexes, columnNames, typeHandlers);
     }
-    if (cacheKey.getUpdateCount() < 2) {
-      return CacheKey.NULL_CACHE_KEY;
-    }
-    return cacheKey;
-  }
-
-  private CacheKey combineKeys(CacheKey rowKey, CacheKey parentRowKey) {
-    if (rowKey.getUpdateCount() > 1 && parentRowKey.getUpdateCount() > 1) {
-      CacheKey combinedKey;
-      try {
-        combinedKey = rowKey.clone();
-      } catch (CloneNotSupportedException e) {
-        throw new ExecutorException("Error cloning cache key.  Cause: " + e, e);
-      }
-      combinedKey.update(parentRowKey);
-      return combinedKey;
+    final int[] indexes = new int[columnIndexes.size()];
+    for (int i = 0; i < indexes.length; i++) {
+      indexes[i] = columnIndexes.get(i);
     }
-    return CacheKey.NULL_CACHE_KEY;
+    return new RowKey.Columns(indexes,
+        configuration.isColumnIndexReadsEnabled() ? null : columnNames.toArray(new String[columnNames.size()]),
+        typeHandlers.toArray(new TypeHandler<?>[typeHandlers.size()]));
   }
 
   private List<ResultMapping> getResultMappingsForRowKey(ResultMap resultMap) {
@@ -1039,30 +1415,29 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return resultMappings;
   }
 
-  private void createRowKeyForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, List<ResultMapping> resultMappings, String columnPrefix) throws SQLException {
+  private void addRowKeyColumnsForMappedProperties(ResultMap resultMap, ResultSetWrapper rsw, List<ResultMapping> resultMappings, String columnPrefix,
+      List<Integer> columnIndexes, List<String> columnNames, List<TypeHandler<?>> typeHandlers) throws SQLException {
     for (ResultMapping resultMapping : resultMappings) {
       if (resultMapping.getNestedResultMapId() != null && resultMapping.getResultSet() == null) {
         // Issue #392
         final ResultMap nestedResultMap = configuration.getResultMap(resultMapping.getNestedResultMapId());
-        createRowKeyForMappedProperties(nestedResultMap, rsw, cacheKey, nestedResultMap.getConstructorResultMappings(),
-            prependPrefix(resultMapping.getColumnPrefix(), columnPrefix));
+        addRowKeyColumnsForMappedProperties(nestedResultMap, rsw, nestedResultMap.getConstructorResultMappings(),
+            prependPrefix(resultMapping.getColumnPrefix(), columnPrefix), columnIndexes, columnNames, typeHandlers);
       } else if (resultMapping.getNestedQueryId() == null) {
         final String column = prependPrefix(resultMapping.getColumn(), columnPrefix);
-        final TypeHandler<?> th = resultMapping.getTypeHandler();
         List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         // Issue #114
         if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
-          final Object value = th.getResult(rsw.getResultSet(), column);
-          if (value != null || configuration.isReturnInstanceForEmptyRow()) {
-            cacheKey.update(column);
-            cacheKey.update(value);
-          }
+          columnIndexes.add(rsw.getLayout().getColumnIndex(column));
+          columnNames.add(column);
+          typeHandlers.add(resultMapping.getTypeHandler());
         }
       }
     }
   }
 
-  private void createRowKeyForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, CacheKey cacheKey, String columnPrefix) throws SQLException {
+  private void addRowKeyColumnsForUnmappedProperties(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix,
+      List<Integer> columnIndexes, List<String> columnNames, List<TypeHandler<?>> typeHandlers) throws SQLException {
     final MetaClass metaType = MetaClass.forClass(resultMap.getType(), reflectorFactory);
     List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
     for (String column : unmappedColumnNames) {
@@ -1076,29 +1451,30 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
       if (metaType.findProperty(property, configuration.isMapUnderscoreToCamelCase()) != null) {
-        String value = rsw.getResultSet().getString(column);
-        if (value != null) {
-          cacheKey.update(column);
-          cacheKey.update(value);
-        }
+        columnIndexes.add(rsw.getLayout().getColumnIndex(column));
+        columnNames.add(column);
+        typeHandlers.add(null);
       }
     }
   }
 
-  private void createRowKeyForMap(ResultSetWrapper rsw, CacheKey cacheKey) throws SQLException {
-    List<String> columnNames = rsw.getColumnNames();
-    for (String columnName : columnNames) {
-      final String value = rsw.getResultSet().getString(columnName);
-      if (value != null) {
-        cacheKey.update(columnName);
-        cacheKey.update(value);
-      }
+  private void addRowKeyColumnsForMap(ResultSetWrapper rsw, List<Integer> columnIndexes, List<String> columnNames,
+      List<TypeHandler<?>> typeHandlers) {
+    for (int i = 1; i <= rsw.getColumnNames().size(); i++) {
+      columnIndexes.add(i);
+      columnNames.add(rsw.getColumnNames().get(i - 1));
+      typeHandlers.add(null);
     }
   }
 
+  @SuppressWarnings("unchecked")
   private void linkObjects(MetaObject metaObject, ResultMapping resultMapping, Object rowValue) {
     final Object collectionProperty = instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject);
-    if (collectionProperty != null) {
+    if (collectionProperty instanceof Collection && !(collectionProperty instanceof ObjectWrapper)
+        && configuration.getObjectWrapperFactory() instanceof DefaultObjectWrapperFactory) {
+      // same as the CollectionWrapper of a meta object, without creating one per row
+      ((Collection<Object>) collectionProperty).add(rowValue);
+    } else if (collectionProperty != null) {
       final MetaObject targetMetaObject = configuration.newMetaObject(collectionProperty);
       targetMetaObject.add(rowValue);
     } else {
@@ -0,0 +1,101 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Meta objects of the rows being mapped by a result set handler, reset from row to row instead of being created
+ * for each row.
+ * <p>
+ * There is one meta object per level of nested result maps: they are acquired and released in LIFO order.
+ * The rows of result maps with nested queries or mappings to other result sets get a new meta object,
+ * as it is kept by the lazy loaders or the pending relations.
+ * </p>
+ * <p>
+ * A pooled meta object wraps another row as soon as it is acquired again, so it must not escape the
+ * {@code getRowValue} call that acquired it: it may only be passed down to the methods mapping the columns of that
+ * row and must be released before the row value is returned.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+final class MetaObjectPool {
+
+  private final Configuration configuration;
+  private final boolean enabled;
+  private final Map<ResultMap, Boolean> reusableResultMaps = new IdentityHashMap<>();
+  private MetaObject[] metaObjects = new MetaObject[4];
+  private int size;
+
+  MetaObjectPool(Configuration configuration) {
+    this.configuration = configuration;
+    this.enabled = configuration.getObjectWrapperFactory() instanceof DefaultObjectWrapperFactory;
+  }
+
+  /**
+   * @param resultMap the result map of the row
+   * @param rowValue the object the row maps to
+   * @return a meta object of the row value, to be released with {@link #release(MetaObject)} once the row is mapped
+   */
+  @SuppressWarnings("deprecation")
+  MetaObject acquire(ResultMap resultMap, Object rowValue) {
+    if (!enabled || !isReusable(resultMap)) {
+      return configuration.newMetaObject(rowValue);
+    }
+    if (size == metaObjects.length) {
+      metaObjects = Arrays.copyOf(metaObjects, size * 2);
+    }
+    MetaObject metaObject = metaObjects[size];
+    if (metaObject == null) {
+      metaObject = configuration.newMetaObject(rowValue);
+      metaObjects[size] = metaObject;
+    } else {
+      metaObject.reset(rowValue);
+    }
+    size++;
+    return metaObject;
+  }
+
+  void release(MetaObject metaObject) {
+    if (size > 0 && metaObjects[size - 1] == metaObject) {
+      size--;
+    }
+  }
+
+  private boolean isReusable(ResultMap resultMap) {
+    Boolean reusable = reusableResultMaps.get(resultMap);
+    if (reusable == null) {
+      reusable = !resultMap.hasNestedQueries();
+      for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+        if (propertyMapping.getResultSet() != null) {
+          reusable = false;
+        }
+      }
+      reusableResultMaps.put(resultMap, reusable);
+    }
+    return reusable;
+  }
+
+}
@@ -0,0 +1,359 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.ObjectTypeHandler;
+import org.apache.ibatis.type.PrimitiveTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnknownTypeHandler;
+
+/**
+ * Columns of a result set and what is derived from them: the mapped and unmapped columns of each result map,
+ * the column indexes of the property mappings and of the row keys, the constructors bound to the columns
+ * and the type handlers.
+ * <p>
+ * A layout only depends on the result set metadata, so it is kept by the mapped statement for each of its result sets
+ * and reused by the next executions as long as the result set has the same columns.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+public class ResultSetLayout {
+
+  private static final String NO_PREFIX = "";
+
+  private final TypeHandlerRegistry typeHandlerRegistry;
+  private final boolean useColumnLabel;
+  private final List<String> columnNames;
+  private final List<String> classNames;
+  private final List<JdbcType> jdbcTypes;
+  private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new ConcurrentHashMap<>();
+  private final Map<String, List<String>> mappedColumnNamesMap = new ConcurrentHashMap<>();
+  private final Map<String, List<String>> unMappedColumnNamesMap = new ConcurrentHashMap<>();
+  private final Map<ResultMap, Map<String, int[]>> propertyColumnIndexesMap = new ConcurrentHashMap<>();
+  private final Map<ResultMap, Integer> integralRowKeyColumnIndexMap = new ConcurrentHashMap<>();
+  private final Map<ResultMap, Map<String, RowKey.Columns>> rowKeyColumnsMap = new ConcurrentHashMap<>();
+  private final Map<Class<?>, ConstructorBinding> constructorBindingMap = new ConcurrentHashMap<>();
+  private final Map<Discriminator, Map<String, Integer>> discriminatorColumnIndexMap = new ConcurrentHashMap<>();
+  private volatile String columnSignature;
+
+  public ResultSetLayout(ResultSetMetaData metaData, Configuration configuration) throws SQLException {
+    this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+    this.useColumnLabel = configuration.isUseColumnLabel();
+    final int columnCount = metaData.getColumnCount();
+    final List<String> columnNames = new ArrayList<>(columnCount);
+    final List<String> classNames = new ArrayList<>(columnCount);
+    final List<JdbcType> jdbcTypes = new ArrayList<>(columnCount);
+    for (int i = 1; i <= columnCount; i++) {
+      columnNames.add(useColumnLabel ? metaData.getColumnLabel(i) : metaData.getColumnName(i));
+      jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
+      classNames.add(metaData.getColumnClassName(i));
+    }
+    this.columnNames = Collections.unmodifiableList(columnNames);
+    this.classNames = Collections.unmodifiableList(classNames);
+    this.jdbcTypes = Collections.unmodifiableList(jdbcTypes);
+  }
+
+  /**
+   * Returns the given layout if the result set still has the same columns, or a new layout otherwise.
+   * The column count, names, types and class names are compared, as the type handlers are resolved from them.
+   *
+   * @param metaData the metadata of the result set
+   * @param configuration the configuration
+   * @param cached the layout of a previous execution, may be {@code null}
+   * @return the layout of the result set
+   */
+  public static ResultSetLayout of(ResultSetMetaData metaData, Configuration configuration, ResultSetLayout cached) throws SQLException {
+    if (cached != null && cached.matches(metaData, configuration)) {
+      return cached;
+    }
+    return new ResultSetLayout(metaData, configuration);
+  }
+
+  private boolean matches(ResultSetMetaData metaData, Configuration configuration) throws SQLException {
+    if (useColumnLabel != configuration.isUseColumnLabel()
+        || typeHandlerRegistry != configuration.getTypeHandlerRegistry()
+        || metaData.getColumnCount() != columnNames.size()) {
+      return false;
+    }
+    for (int i = 0; i < columnNames.size(); i++) {
+      String columnName = useColumnLabel ? metaData.getColumnLabel(i + 1) : metaData.getColumnName(i + 1);
+      if (!columnNames.get(i).equals(columnName)
+          || jdbcTypes.get(i) != JdbcType.forCode(metaData.getColumnType(i + 1))
+          || !Objects.equals(classNames.get(i), metaData.getColumnClassName(i + 1))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  public List<String> getClassNames() {
+    return classNames;
+  }
+
+  public List<JdbcType> getJdbcTypes() {
+    return jdbcTypes;
+  }
+
+  public int getColumnIndex(String columnName) {
+    for (int i = 0 ; i < columnNames.size(); i++) {
+      if (columnNames.get(i).equalsIgnoreCase(columnName)) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  public JdbcType getJdbcType(String columnName) {
+    int index = getColumnIndex(columnName);
+    return index == -1 ? null : jdbcTypes.get(index - 1);
+  }
+
+  public String getColumnSignature() {
+    if (columnSignature == null) {
+      StringBuilder signature = new StringBuilder();
+      for (int i = 0; i < columnNames.size(); i++) {
+        signature.append(columnNames.get(i)).append(':').append(jdbcTypes.get(i)).append(':').append(classNames.get(i)).append(',');
+      }
+      columnSignature = signature.toString();
+    }
+    return columnSignature;
+  }
+
+  public TypeHandler<?> getTypeHandler(Class<?> propertyType, String columnName) {
+    Map<Class<?>, TypeHandler<?>> columnHandlers = typeHandlerMap.computeIfAbsent(columnName, k -> new ConcurrentHashMap<>());
+    TypeHandler<?> handler = columnHandlers.get(propertyType);
+    if (handler == null) {
+      JdbcType jdbcType = getJdbcType(columnName);
+      handler = typeHandlerRegistry.getTypeHandler(propertyType, jdbcType);
+      // Replicate logic of UnknownTypeHandler#resolveTypeHandler
+      // See issue #59 comment 10
+      if (handler == null || handler instanceof UnknownTypeHandler) {
+        final int index = columnNames.indexOf(columnName);
+        final Class<?> javaType = resolveClass(classNames.get(index));
+        if (javaType != null && jdbcType != null) {
+          handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
+        } else if (javaType != null) {
+          handler = typeHandlerRegistry.getTypeHandler(javaType);
+        } else if (jdbcType != null) {
+          handler = typeHandlerRegistry.getTypeHandler(jdbcType);
+        }
+      }
+      if (handler == null || handler instanceof UnknownTypeHandler) {
+        handler = new ObjectTypeHandler();
+      }
+      columnHandlers.put(propertyType, handler);
+    }
+    return handler;
+  }
+
+  private Class<?> resolveClass(String className) {
+    try {
+      // #699 className could be null
+      if (className != null) {
+        return Resources.classForName(className);
+      }
+    } catch (ClassNotFoundException e) {
+      // ignore
+    }
+    return null;
+  }
+
+  private void loadMappedAndUnmappedColumnNames(ResultMap resultMap, String columnPrefix) {
+    List<String> mappedColumnNames = new ArrayList<>();
+    List<String> unmappedColumnNames = new ArrayList<>();
+    final String upperColumnPrefix = columnPrefix == null ? null : columnPrefix.toUpperCase(Locale.ENGLISH);
+    final Set<String> mappedColumns = prependPrefixes(resultMap.getMappedColumns(), upperColumnPrefix);
+    for (String columnName : columnNames) {
+      final String upperColumnName = columnName.toUpperCase(Locale.ENGLISH);
+      if (mappedColumns.contains(upperColumnName)) {
+        mappedColumnNames.add(upperColumnName);
+      } else {
+        unmappedColumnNames.add(columnName);
+      }
+    }
+    mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), Collections.unmodifiableList(mappedColumnNames));
+    unMappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), Collections.unmodifiableList(unmappedColumnNames));
+  }
+
+  public List<String> getMappedColumnNames(ResultMap resultMap, String columnPrefix) {
+    List<String> mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    if (mappedColumnNames == null) {
+      loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
+      mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    }
+    return mappedColumnNames;
+  }
+
+  public List<String> getUnmappedColumnNames(ResultMap resultMap, String columnPrefix) {
+    List<String> unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    if (unMappedColumnNames == null) {
+      loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
+      unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    }
+    return unMappedColumnNames;
+  }
+
+  /**
+   * @param resultMap the result map
+   * @param columnPrefix the column prefix, may be {@code null}
+   * @return for each property result mapping of the result map, the index of its column in the result set
+   *         or -1 if the column is not in the result set or the mapping has no simple column
+   */
+  public int[] getPropertyColumnIndexes(ResultMap resultMap, String columnPrefix) {
+    Map<String, int[]> indexesByPrefix = propertyColumnIndexesMap.computeIfAbsent(resultMap, k -> new ConcurrentHashMap<>());
+    int[] columnIndexes = indexesByPrefix.get(columnPrefix == null ? NO_PREFIX : columnPrefix);
+    if (columnIndexes == null) {
+      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+      columnIndexes = new int[propertyMappings.size()];
+      for (int i = 0; i < columnIndexes.length; i++) {
+        final ResultMapping propertyMapping = propertyMappings.get(i);
+        final String column = propertyMapping.getColumn();
+        if (column == null || propertyMapping.getNestedResultMapId() != null || propertyMapping.isCompositeResult()) {
+          columnIndexes[i] = -1;
+        } else {
+          columnIndexes[i] = getColumnIndex(prependPrefix(column, columnPrefix));
+        }
+      }
+      indexesByPrefix.put(columnPrefix == null ? NO_PREFIX : columnPrefix, columnIndexes);
+    }
+    return columnIndexes;
+  }
+
+  RowKey.Columns getRowKeyColumns(ResultMap resultMap, String columnPrefix) {
+    Map<String, RowKey.Columns> columnsByPrefix = rowKeyColumnsMap.get(resultMap);
+    return columnsByPrefix == null ? null : columnsByPrefix.get(columnPrefix == null ? NO_PREFIX : columnPrefix);
+  }
+
+  void putRowKeyColumns(ResultMap resultMap, String columnPrefix, RowKey.Columns columns) {
+    rowKeyColumnsMap.computeIfAbsent(resultMap, k -> new ConcurrentHashMap<>())
+        .put(columnPrefix == null ? NO_PREFIX : columnPrefix, columns);
+  }
+
+  /**
+   * @param discriminator a discriminator
+   * @param columnPrefix the column prefix, may be {@code null}
+   * @return the index of the discriminator column in the result set, or -1 if it is not in the result set
+   */
+  public int getDiscriminatorColumnIndex(Discriminator discriminator, String columnPrefix) {
+    Map<String, Integer> indexesByPrefix = discriminatorColumnIndexMap.computeIfAbsent(discriminator, k -> new ConcurrentHashMap<>());
+    Integer columnIndex = indexesByPrefix.get(columnPrefix == null ? NO_PREFIX : columnPrefix);
+    if (columnIndex == null) {
+      final String column = discriminator.getResultMapping().getColumn();
+      columnIndex = column == null ? -1 : getColumnIndex(prependPrefix(column, columnPrefix));
+      indexesByPrefix.put(columnPrefix == null ? NO_PREFIX : columnPrefix, columnIndex);
+    }
+    return columnIndex;
+  }
+
+  ConstructorBinding getConstructorBinding(Class<?> resultType) {
+    return constructorBindingMap.get(resultType);
+  }
+
+  void putConstructorBinding(Class<?> resultType, ConstructorBinding constructorBinding) {
+    constructorBindingMap.put(resultType, constructorBinding);
+  }
+
+  /**
+   * Returns the column of the row key of a result map when the row key is made of a single integral column,
+   * so that rows can be identified by a {@code long} instead of a cache key.
+   *
+   * @param resultMap the result map, without column prefix
+   * @return the index of the column in the result set, or -1 if the row key is not a single integral column
+   */
+  public int getIntegralRowKeyColumnIndex(ResultMap resultMap) {
+    Integer columnIndex = integralRowKeyColumnIndexMap.get(resultMap);
+    if (columnIndex == null) {
+      columnIndex = findIntegralRowKeyColumnIndex(resultMap);
+      integralRowKeyColumnIndexMap.put(resultMap, columnIndex);
+    }
+    return columnIndex;
+  }
+
+  private int findIntegralRowKeyColumnIndex(ResultMap resultMap) {
+    List<ResultMapping> resultMappings = resultMap.getIdResultMappings();
+    if (resultMappings.isEmpty()) {
+      resultMappings = resultMap.getPropertyResultMappings();
+    }
+    if (resultMappings.size() != 1) {
+      return -1;
+    }
+    final ResultMapping resultMapping = resultMappings.get(0);
+    final TypeHandler<?> typeHandler = resultMapping.getTypeHandler();
+    if (resultMapping.getColumn() == null || resultMapping.getNestedResultMapId() != null
+        || resultMapping.getNestedQueryId() != null || resultMapping.isCompositeResult()
+        || !(typeHandler instanceof PrimitiveTypeHandler)
+        || ((PrimitiveTypeHandler) typeHandler).getPrimitiveType() == boolean.class) {
+      return -1;
+    }
+    final int columnIndex = getColumnIndex(resultMapping.getColumn());
+    if (columnIndex == -1) {
+      return -1;
+    }
+    final JdbcType jdbcType = jdbcTypes.get(columnIndex - 1);
+    if (jdbcType == JdbcType.TINYINT || jdbcType == JdbcType.SMALLINT
+        || jdbcType == JdbcType.INTEGER || jdbcType == JdbcType.BIGINT) {
+      return columnIndex;
+    }
+    return -1;
+  }
+
+  private String getMapKey(ResultMap resultMap, String columnPrefix) {
+    return resultMap.getId() + ":" + columnPrefix;
+  }
+
+  private String prependPrefix(String columnName, String prefix) {
+    if (columnName == null || columnName.length() == 0 || prefix == null || prefix.length() == 0) {
+      return columnName;
+    }
+    return prefix + columnName;
+  }
+
+  private Set<String> prependPrefixes(Set<String> columnNames, String prefix) {
+    if (columnNames == null || columnNames.isEmpty() || prefix == null || prefix.length() == 0) {
+      return columnNames;
+    }
+    final Set<String> prefixed = new HashSet<>();
+    for (String columnName : columnNames) {
+      prefixed.add(prefix + columnName);
+    }
+    return prefixed;
+  }
+
+}
@@ -0,0 +1,140 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.reflection.ArrayUtil;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Identity of the object a row maps to with a result map of a nested result mapping.
+ * <p>
+ * It is made of the result map, the column prefix, the values of the row key columns and the identity of the parent
+ * row, and replaces a {@link org.apache.ibatis.cache.CacheKey} built from the column names and values of every
+ * nesting level. The values are kept in a flat array, in the order of the {@link Columns} they were read from,
+ * and the hash code is computed once.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+final class RowKey {
+
+  /**
+   * Key of a row without any value in its row key columns. Such rows are never merged.
+   */
+  static final RowKey NULL = new RowKey(null, null, new Object[0], null);
+
+  private final String resultMapId;
+  private final String columnPrefix;
+  private final Object[] values;
+  private final RowKey parent;
+  private final int hashCode;
+
+  private RowKey(String resultMapId, String columnPrefix, Object[] values, RowKey parent) {
+    this.resultMapId = resultMapId;
+    this.columnPrefix = columnPrefix;
+    this.values = values;
+    this.parent = parent;
+    int hash = resultMapId == null ? 0 : resultMapId.hashCode();
+    hash = 31 * hash + (columnPrefix == null ? 0 : columnPrefix.hashCode());
+    for (Object value : values) {
+      hash = 31 * hash + ArrayUtil.hashCode(value);
+    }
+    this.hashCode = 31 * hash + (parent == null ? 0 : parent.hashCode);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof RowKey)) {
+      return false;
+    }
+    final RowKey other = (RowKey) object;
+    if (hashCode != other.hashCode || values.length != other.values.length
+        || !equals(resultMapId, other.resultMapId) || !equals(columnPrefix, other.columnPrefix)) {
+      return false;
+    }
+    for (int i = 0; i < values.length; i++) {
+      if (!ArrayUtil.equals(values[i], other.values[i])) {
+        return false;
+      }
+    }
+    return parent == null ? other.parent == null : parent.equals(other.parent);
+  }
+
+  private static boolean equals(String a, String b) {
+    return a == null ? b == null : a.equals(b);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  /**
+   * The row key columns of a result map in a result set, resolved once per result set layout.
+   */
+  static final class Columns {
+
+    private final int[] columnIndexes;
+    // null to read the columns of the type handlers by index
+    private final String[] columnNames;
+    // null to read the column as a string
+    private final TypeHandler<?>[] typeHandlers;
+
+    Columns(int[] columnIndexes, TypeHandler<?>[] typeHandlers) {
+      this(columnIndexes, null, typeHandlers);
+    }
+
+    Columns(int[] columnIndexes, String[] columnNames, TypeHandler<?>[] typeHandlers) {
+      this.columnIndexes = columnIndexes;
+      this.columnNames = columnNames;
+      this.typeHandlers = typeHandlers;
+    }
+
+    /**
+     * @param rs the result set, on the current row
+     * @param resultMapId the id of the result map
+     * @param columnPrefix the column prefix, may be {@code null}
+     * @param parent the key of the parent row, {@code null} for the main result
+     * @param nullIsValue whether null values of columns read by type handlers identify a row
+     * @return the key of the row, or {@link RowKey#NULL} when the row has no value or the parent has no key
+     */
+    RowKey createRowKey(ResultSet rs, String resultMapId, String columnPrefix, RowKey parent, boolean nullIsValue) throws SQLException {
+      if (parent == NULL) {
+        return NULL;
+      }
+      final Object[] values = new Object[columnIndexes.length];
+      boolean found = false;
+      for (int i = 0; i < columnIndexes.length; i++) {
+        final TypeHandler<?> typeHandler = typeHandlers[i];
+        if (typeHandler == null) {
+          values[i] = rs.getString(columnIndexes[i]);
+          found = found || values[i] != null;
+        } else {
+          values[i] = columnNames == null ? typeHandler.getResult(rs, columnIndexes[i]) : typeHandler.getResult(rs, columnNames[i]);
+          found = found || values[i] != null || nullIsValue;
+        }
+      }
+      return found ? new RowKey(resultMapId, columnPrefix, values, parent) : NULL;
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * A column automatically mapped to a property of the result object.
+ *
+ * @since 3.5.0
+ */
+public class UnMappedColumnAutoMapping {
+
+  private final String column;
+  private final int columnIndex;
+  private final String property;
+  private final TypeHandler<?> typeHandler;
+  private final boolean primitive;
+
+  public UnMappedColumnAutoMapping(String column, int columnIndex, String property, TypeHandler<?> typeHandler, boolean primitive) {
+    this.column = column;
+    this.columnIndex = columnIndex;
+    this.property = property;
+    this.typeHandler = typeHandler;
+    this.primitive = primitive;
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  public int getColumnIndex() {
+    return columnIndex;
+  }
+
+  public String getProperty() {
+    return property;
+  }
+
+  public TypeHandler<?> getTypeHandler() {
+    return typeHandler;
+  }
+
+  public boolean isPrimitive() {
+    return primitive;
+  }
+
+}
@@ -0,0 +1,89 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+/**
+ * Fetch size learned from the results of previous executions of a mapped statement.
+ * <p>
+ * Each execution records the number of rows and columns it has read. The suggested fetch size is the
+ * (exponentially weighted) average number of rows plus one, so that a typical result is read in a single round-trip,
+ * within the given bounds. The upper bound is meant for rows of up to {@value #REFERENCE_COLUMN_COUNT} columns
+ * and is lowered proportionally for wider rows to keep the driver buffers reasonably sized.
+ * </p>
+ * <p>
+ * Statistics are updated without locking: concurrent executions may occasionally overwrite each other's observation,
+ * which is acceptable for a hint.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+public class AdaptiveFetchSize {
+
+  public static final int REFERENCE_COLUMN_COUNT = 10;
+
+  private static final double WEIGHT = 0.2;
+
+  private volatile long executions;
+  private volatile double averageRows;
+  private volatile double averageColumns;
+
+  public void record(int rows, int columns) {
+    if (executions == 0) {
+      averageRows = rows;
+      averageColumns = columns;
+    } else {
+      averageRows += WEIGHT * (rows - averageRows);
+      averageColumns += WEIGHT * (columns - averageColumns);
+    }
+    executions++;
+  }
+
+  /**
+   * @param minFetchSize the lower bound
+   * @param maxFetchSize the upper bound, for rows of up to {@value #REFERENCE_COLUMN_COUNT} columns
+   * @return the suggested fetch size, or {@code null} if no execution has been recorded yet
+   */
+  public Integer getFetchSize(int minFetchSize, int maxFetchSize) {
+    if (executions == 0) {
+      return null;
+    }
+    long upperBound = maxFetchSize;
+    if (averageColumns > REFERENCE_COLUMN_COUNT) {
+      upperBound = (long) (maxFetchSize * REFERENCE_COLUMN_COUNT / averageColumns);
+    }
+    long fetchSize = Math.min((long) Math.ceil(averageRows) + 1, upperBound);
+    return (int) Math.max(fetchSize, minFetchSize);
+  }
+
+  public long getExecutions() {
+    return executions;
+  }
+
+  public double getAverageRows() {
+    return averageRows;
+  }
+
+  public double getAverageColumns() {
+    return averageColumns;
+  }
+
+  public void reset() {
+    executions = 0;
+    averageRows = 0;
+    averageColumns = 0;
+  }
+
+}
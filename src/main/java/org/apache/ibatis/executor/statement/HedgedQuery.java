@@ -0,0 +1,337 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.SimpleExecutor;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * Executes a hedged select.
+ * <p>
+ * When the select has not completed after the configured percentile of its previous latencies,
+ * the same select is executed in a second transaction, created by the TransactionFactory of the environment
+ * over the hedged query DataSource (the environment's DataSource by default) with the isolation level of the session.
+ * The first result wins and the other execution is cancelled with {@link Statement#cancel()}.
+ * Until enough executions have been recorded, the select is not hedged.
+ * </p>
+ * <p>
+ * Only statements marked as hedged, returning their results as a list and without nested queries are hedged,
+ * and only when the connection of the session is in autocommit mode: cancelling a statement may abort the transaction
+ * it runs in, and a second transaction would not read the snapshot of the session's transaction.
+ * The second execution has an executor of its own, so the executor of the session is only used by its thread.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+public class HedgedQuery {
+
+  private static final Log log = LogFactory.getLog(HedgedQuery.class);
+
+  private static final int RUNNING = 0;
+  private static final int PRIMARY_WON = 1;
+  private static final int BACKUP_WON = 2;
+
+  private final MappedStatement mappedStatement;
+  private final Object parameter;
+  private final RowBounds rowBounds;
+  private final BoundSql boundSql;
+  private final DataSource dataSource;
+  private final AtomicInteger state = new AtomicInteger(RUNNING);
+  private final CountDownLatch primaryCancelled = new CountDownLatch(1);
+
+  private volatile TransactionIsolationLevel isolationLevel;
+  private volatile Statement primaryStatement;
+  private volatile Statement backupStatement;
+  private volatile List<Object> backupResult;
+
+  public HedgedQuery(MappedStatement mappedStatement, Object parameter, RowBounds rowBounds, BoundSql boundSql) {
+    Configuration configuration = mappedStatement.getConfiguration();
+    this.mappedStatement = mappedStatement;
+    this.parameter = parameter;
+    this.rowBounds = rowBounds;
+    this.boundSql = boundSql;
+    this.dataSource = configuration.getHedgedQueryDataSource() != null
+        ? configuration.getHedgedQueryDataSource() : configuration.getEnvironment().getDataSource();
+  }
+
+  public static boolean isApplicable(MappedStatement ms, ResultHandler<?> resultHandler, Statement statement)
+      throws SQLException {
+    return isApplicable(ms, resultHandler) && statement.getConnection().getAutoCommit();
+  }
+
+  public static boolean isApplicable(MappedStatement ms, ResultHandler<?> resultHandler) {
+    if (!ms.isHedged() || resultHandler != null || ms.getStatementType() == StatementType.CALLABLE) {
+      return false;
+    }
+    for (ResultMap resultMap : ms.getResultMaps()) {
+      if (hasNestedQueries(ms.getConfiguration(), resultMap)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasNestedQueries(Configuration configuration, ResultMap resultMap) {
+    if (resultMap.hasNestedQueries()) {
+      return true;
+    }
+    Discriminator discriminator = resultMap.getDiscriminator();
+    if (discriminator != null) {
+      for (String caseResultMapId : discriminator.getDiscriminatorMap().values()) {
+        ResultMap caseResultMap = configuration.getResultMap(caseResultMapId);
+        if (caseResultMap != resultMap && hasNestedQueries(configuration, caseResultMap)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Stops the threads of the second executions, e.g. when the application is undeployed.
+   * They are started again by the next hedged select.
+   */
+  public static void shutdown() {
+    Workers.shutdown();
+  }
+
+  @SuppressWarnings("unchecked")
+  public <E> List<E> query(StatementHandler primaryHandler, Statement statement) throws SQLException {
+    QueryLatency latency = mappedStatement.getQueryLatency();
+    long start = System.nanoTime();
+    Long delay = latency.getPercentile(mappedStatement.getConfiguration().getHedgedQueryPercentile());
+    Future<?> timer = null;
+    if (delay != null) {
+      primaryStatement = statement;
+      isolationLevel = isolationLevel(statement.getConnection());
+      timer = schedule(delay);
+    }
+    if (timer == null) {
+      try {
+        return primaryHandler.query(statement, null);
+      } finally {
+        latency.record(System.nanoTime() - start);
+      }
+    }
+    try {
+      return primaryHandler.query(statement, null);
+    } catch (SQLException | RuntimeException e) {
+      if (state.get() == BACKUP_WON) {
+        // cancelled by the backup execution
+        return (List<E>) backupResult;
+      }
+      throw e;
+    } finally {
+      if (state.compareAndSet(RUNNING, PRIMARY_WON)) {
+        timer.cancel(false);
+        cancel(backupStatement);
+      } else {
+        // the statement must not be reused by the executor before the backup execution has cancelled it
+        awaitPrimaryCancelled();
+      }
+      latency.record(System.nanoTime() - start);
+    }
+  }
+
+  private Future<?> schedule(long delay) {
+    try {
+      Workers workers = Workers.get();
+      return workers.scheduler.schedule(() -> workers.executor.execute(this::executeBackup), delay, TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      // shut down in the meantime
+      return null;
+    }
+  }
+
+  protected StatementHandler newBackupHandler(Executor executor) {
+    return RoutingStatementHandler.newDelegate(executor, mappedStatement, parameter, rowBounds, null, boundSql);
+  }
+
+  private void executeBackup() {
+    if (state.get() != RUNNING) {
+      return;
+    }
+    Executor executor = null;
+    Statement statement = null;
+    try {
+      if (log.isDebugEnabled()) {
+        log.debug("Hedging " + mappedStatement.getId() + " in a second transaction");
+      }
+      Configuration configuration = mappedStatement.getConfiguration();
+      Transaction transaction = configuration.getEnvironment().getTransactionFactory()
+          .newTransaction(dataSource, isolationLevel, true);
+      executor = new SimpleExecutor(configuration, transaction);
+      StatementHandler handler = newBackupHandler(executor);
+      statement = handler.prepare(transaction.getConnection(mappedStatement), transaction.getTimeout());
+      backupStatement = statement;
+      if (state.get() != RUNNING) {
+        return;
+      }
+      handler.parameterize(statement);
+      List<Object> result = handler.query(statement, null);
+      backupResult = result;
+      if (state.compareAndSet(RUNNING, BACKUP_WON)) {
+        try {
+          cancel(primaryStatement);
+        } finally {
+          primaryCancelled.countDown();
+        }
+      }
+    } catch (Exception e) {
+      if (log.isDebugEnabled()) {
+        log.debug("Hedged execution of " + mappedStatement.getId() + " did not complete.  Cause: " + e);
+      }
+    } finally {
+      close(statement);
+      if (executor != null) {
+        executor.close(false);
+      }
+      ErrorContext.instance().reset();
+    }
+  }
+
+  private void awaitPrimaryCancelled() {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        primaryCancelled.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static TransactionIsolationLevel isolationLevel(Connection connection) throws SQLException {
+    int level = connection.getTransactionIsolation();
+    for (TransactionIsolationLevel candidate : TransactionIsolationLevel.values()) {
+      if (candidate.getLevel() == level) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  private static void cancel(Statement statement) {
+    if (statement != null) {
+      try {
+        statement.cancel();
+      } catch (SQLException e) {
+        // ignore
+      }
+    }
+  }
+
+  private static void close(Statement statement) {
+    try {
+      if (statement != null) {
+        statement.close();
+      }
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  private static class Workers {
+
+    private static volatile Workers instance;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ExecutorService executor;
+
+    private Workers() {
+      scheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("mybatis-hedged-query-timer"));
+      // timers are cancelled by most executions, and the idle timer thread ends
+      scheduler.setRemoveOnCancelPolicy(true);
+      scheduler.setKeepAliveTime(60, TimeUnit.SECONDS);
+      scheduler.allowCoreThreadTimeOut(true);
+      executor = Executors.newCachedThreadPool(new DaemonThreadFactory("mybatis-hedged-query"));
+    }
+
+    static Workers get() {
+      Workers workers = instance;
+      if (workers == null) {
+        synchronized (Workers.class) {
+          workers = instance;
+          if (workers == null) {
+            workers = new Workers();
+            instance = workers;
+          }
+        }
+      }
+      return workers;
+    }
+
+    static synchronized void shutdown() {
+      Workers workers = instance;
+      if (workers != null) {
+        instance = null;
+        workers.scheduler.shutdownNow();
+        workers.executor.shutdownNow();
+      }
+    }
+  }
+
+  private static class DaemonThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger counter = new AtomicInteger();
+    private final String prefix;
+
+    DaemonThreadFactory(String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+}
@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies of the last executions of a mapped statement.
+ * The recorded latencies are sorted again only after {@value #RESORT_INTERVAL} new executions,
+ * so percentiles are read from a sorted copy that can miss the latest executions.
+ *
+ * @since 3.5.0
+ */
+public class QueryLatency {
+
+  public static final int SAMPLE_SIZE = 128;
+
+  public static final int MIN_SAMPLE_SIZE = 16;
+
+  public static final int RESORT_INTERVAL = 16;
+
+  private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_SIZE);
+  private final AtomicLong count = new AtomicLong();
+
+  private volatile Sorted sorted;
+
+  public void record(long nanos) {
+    samples.set((int) (count.getAndIncrement() % SAMPLE_SIZE), nanos);
+  }
+
+  /**
+   * @param percentile between 1 and 100
+   * @return the latency in nanoseconds under which the given percentage of the recorded executions completed,
+   *         or {@code null} if less than {@value #MIN_SAMPLE_SIZE} executions have been recorded
+   */
+  public Long getPercentile(int percentile) {
+    long currentCount = count.get();
+    if (currentCount < MIN_SAMPLE_SIZE) {
+      return null;
+    }
+    Sorted current = sorted;
+    if (current == null || currentCount - current.count >= RESORT_INTERVAL) {
+      // concurrent callers may sort at the same time, the last one wins
+      current = sort(currentCount);
+      sorted = current;
+    }
+    long[] values = current.values;
+    int index = (int) Math.ceil(percentile / 100.0 * values.length) - 1;
+    return values[Math.max(0, Math.min(index, values.length - 1))];
+  }
+
+  private Sorted sort(long currentCount) {
+    int size = (int) Math.min(currentCount, SAMPLE_SIZE);
+    long[] values = new long[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = samples.get(i);
+    }
+    Arrays.sort(values);
+    return new Sorted(currentCount, values);
+  }
+
+  public long getCount() {
+    return count.get();
+  }
+
+  private static class Sorted {
+
+    private final long count;
+    private final long[] values;
+
+    Sorted(long count, long[] values) {
+      this.count = count;
+      this.values = values;
+    }
+  }
+
+}
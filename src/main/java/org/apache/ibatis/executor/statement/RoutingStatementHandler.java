@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2016 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -35,23 +35,28 @@ import org.apache.ibatis.session.RowBounds;
 public class RoutingStatementHandler implements StatementHandler {
 
   private final StatementHandler delegate;
+  private final MappedStatement mappedStatement;
+  private final Object parameter;
+  private final RowBounds rowBounds;
 
   public RoutingStatementHandler(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
+    this.delegate = newDelegate(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+    this.mappedStatement = ms;
+    this.parameter = parameter;
+    this.rowBounds = rowBounds;
+  }
 
+  static StatementHandler newDelegate(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
     switch (ms.getStatementType()) {
       case STATEMENT:
-        delegate = new SimpleStatementHandler(executor, ms, parameter, rowBounds, resultHandler, boundSql);
-        break;
+        return new SimpleStatementHandler(executor, ms, parameter, rowBounds, resultHandler, boundSql);
       case PREPARED:
-        delegate = new PreparedStatementHandler(executor, ms, parameter, rowBounds, resultHandler, boundSql);
-        break;
+        return new PreparedStatementHandler(executor, ms, parameter, rowBounds, resultHandler, boundSql);
       case CALLABLE:
-        delegate = new CallableStatementHandler(executor, ms, parameter, rowBounds, resultHandler, boundSql);
-        break;
+        return new CallableStatementHandler(executor, ms, parameter, rowBounds, resultHandler, boundSql);
       default:
         throw new ExecutorException("Unknown statement type: " + ms.getStatementType());
     }
-
   }
 
   @Override
@@ -76,6 +81,9 @@ public class RoutingStatementHandler implements StatementHandler {
 
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
+    if (HedgedQuery.isApplicable(mappedStatement, resultHandler, statement)) {
+      return new HedgedQuery(mappedStatement, parameter, rowBounds, delegate.getBoundSql()).query(delegate, statement);
+    }
     return delegate.<E>query(statement, resultHandler);
   }
 
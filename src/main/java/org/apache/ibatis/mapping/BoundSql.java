@@ -21,6 +21,7 @@ import java.util.Map;
 
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -40,6 +41,7 @@ public class BoundSql {
   private final Object parameterObject;
   private final Map<String, Object> additionalParameters;
   private final MetaObject metaParameters;
+  private final boolean directAccess;
 
   public BoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, Object parameterObject) {
     this.sql = sql;
@@ -47,6 +49,7 @@ public class BoundSql {
     this.parameterObject = parameterObject;
     this.additionalParameters = new HashMap<>();
     this.metaParameters = configuration.newMetaObject(additionalParameters);
+    this.directAccess = configuration.getObjectWrapperFactory() instanceof DefaultObjectWrapperFactory;
   }
 
   public String getSql() {
@@ -62,7 +65,7 @@ public class BoundSql {
   }
 
   public boolean hasAdditionalParameter(String name) {
-    String paramName = new PropertyTokenizer(name).getName();
+    String paramName = isSimpleProperty(name) ? name : new PropertyTokenizer(name).getName();
     return additionalParameters.containsKey(paramName);
   }
 
@@ -71,6 +74,13 @@ public class BoundSql {
   }
 
   public Object getAdditionalParameter(String name) {
+    if (directAccess && isSimpleProperty(name)) {
+      return additionalParameters.get(name);
+    }
     return metaParameters.getValue(name);
   }
+
+  private static boolean isSimpleProperty(String name) {
+    return name.indexOf('.') < 0 && name.indexOf('[') < 0;
+  }
 }
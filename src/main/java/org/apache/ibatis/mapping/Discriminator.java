@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2015 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,8 +15,11 @@
  */
 package org.apache.ibatis.mapping;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.session.Configuration;
 
@@ -25,8 +28,13 @@ import org.apache.ibatis.session.Configuration;
  */
 public class Discriminator {
 
+  private static final Object NULL_VALUE = new Object();
+
+  private Configuration configuration;
   private ResultMapping resultMapping;
   private Map<String, String> discriminatorMap;
+  // result maps of the values read so far
+  private final Map<Object, ResultMap> resultMapsByValue = new ConcurrentHashMap<>();
 
   Discriminator() {
   }
@@ -35,6 +43,7 @@ public class Discriminator {
     private Discriminator discriminator = new Discriminator();
 
     public Builder(Configuration configuration, ResultMapping resultMapping, Map<String, String> discriminatorMap) {
+      discriminator.configuration = configuration;
       discriminator.resultMapping = resultMapping;
       discriminator.discriminatorMap = discriminatorMap;
     }
@@ -61,4 +70,41 @@ public class Discriminator {
     return discriminatorMap.get(s);
   }
 
+  /**
+   * Returns the result map of the case matching a value of the discriminator column.
+   * <p>
+   * The result maps are cached by value for immutable value types, so that the value is only converted to a string
+   * and the result map is only looked up by id the first time a value is read.
+   * </p>
+   *
+   * @param value the value read from the discriminator column, may be {@code null}
+   * @return the result map, or {@code null} if no case matches the value or its result map does not exist
+   * @since 3.5.0
+   */
+  public ResultMap getResultMapFor(Object value) {
+    final boolean cacheable = isCacheable(value);
+    if (cacheable) {
+      final ResultMap resultMap = resultMapsByValue.get(value == null ? NULL_VALUE : value);
+      if (resultMap != null) {
+        return resultMap;
+      }
+    }
+    final String mapId = getMapIdFor(String.valueOf(value));
+    if (mapId == null || configuration == null || !configuration.hasResultMap(mapId)) {
+      // not cached as the result map may be added later
+      return null;
+    }
+    final ResultMap resultMap = configuration.getResultMap(mapId);
+    if (cacheable) {
+      resultMapsByValue.put(value == null ? NULL_VALUE : value, resultMap);
+    }
+    return resultMap;
+  }
+
+  private static boolean isCacheable(Object value) {
+    return value == null || value instanceof String || value instanceof Integer || value instanceof Long
+        || value instanceof Short || value instanceof Byte || value instanceof Character || value instanceof Boolean
+        || value instanceof BigDecimal || value instanceof BigInteger || value instanceof Enum;
+  }
+
 }
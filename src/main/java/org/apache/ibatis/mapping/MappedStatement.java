@@ -18,11 +18,16 @@ package org.apache.ibatis.mapping;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.resultset.ResultSetLayout;
+import org.apache.ibatis.executor.statement.AdaptiveFetchSize;
+import org.apache.ibatis.executor.statement.QueryLatency;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
@@ -56,6 +61,10 @@ public final class MappedStatement {
   private Log statementLog;
   private LanguageDriver lang;
   private String[] resultSets;
+  private AdaptiveFetchSize adaptiveFetchSize;
+  private boolean hedged;
+  private QueryLatency queryLatency;
+  private final Map<Integer, ResultSetLayout> resultSetLayouts = new ConcurrentHashMap<>();
 
   MappedStatement() {
     // constructor disabled
@@ -79,6 +88,7 @@ public final class MappedStatement {
       }
       mappedStatement.statementLog = LogFactory.getLog(logId);
       mappedStatement.lang = configuration.getDefaultScriptingLanguageInstance();
+      mappedStatement.adaptiveFetchSize = new AdaptiveFetchSize();
     }
 
     public Builder resource(String resource) {
@@ -173,6 +183,12 @@ public final class MappedStatement {
       return this;
     }
 
+    public Builder hedged(boolean hedged) {
+      mappedStatement.hedged = hedged;
+      mappedStatement.queryLatency = hedged ? new QueryLatency() : null;
+      return this;
+    }
+
     /** @deprecated Use {@link #resultSets} */
     @Deprecated
     public Builder resulSets(String resultSet) {
@@ -287,6 +303,46 @@ public final class MappedStatement {
   public String[] getResulSets() {
     return resultSets;
   }
+
+  /**
+   * @return the fetch size learned from previous executions, used when the adaptiveFetchSizeEnabled setting is on
+   * @since 3.5.0
+   */
+  public AdaptiveFetchSize getAdaptiveFetchSize() {
+    return adaptiveFetchSize;
+  }
+
+  /**
+   * @return whether a slow execution is hedged with a second execution in another transaction
+   * @since 3.5.0
+   */
+  public boolean isHedged() {
+    return hedged;
+  }
+
+  /**
+   * @return the latencies of the previous executions, or {@code null} if the statement is not hedged
+   * @since 3.5.0
+   */
+  public QueryLatency getQueryLatency() {
+    return queryLatency;
+  }
+
+  /**
+   * @param resultSetIndex the index of the result set, starting at 0
+   * @return the layout of the columns of the result set in the last execution, or {@code null}
+   * @since 3.5.0
+   */
+  public ResultSetLayout getResultSetLayout(int resultSetIndex) {
+    return resultSetLayouts.get(resultSetIndex);
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public void setResultSetLayout(int resultSetIndex, ResultSetLayout layout) {
+    resultSetLayouts.put(resultSetIndex, layout);
+  }
   
   public BoundSql getBoundSql(Object parameterObject) {
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
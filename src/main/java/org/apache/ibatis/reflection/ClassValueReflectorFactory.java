@@ -0,0 +1,69 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+/**
+ * A {@link ReflectorFactory} that keeps the reflector of a class with the class itself, through a {@link ClassValue},
+ * instead of in a map of the factory.
+ * <p>
+ * The reflectors of the classes of an application that is undeployed do not prevent its class loader from being
+ * collected while the factory is still in use, e.g. when several applications share a configuration. The reflectors
+ * of classes loaded by a parent class loader are kept by these classes, at least as long as the factory is reachable.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+public class ClassValueReflectorFactory extends DefaultReflectorFactory {
+
+  private volatile ClassValue<Reflector> reflectors = newReflectors();
+
+  public ClassValueReflectorFactory() {
+  }
+
+  /**
+   * @param directInvocationEnabled whether the reflectors access properties through direct invokers
+   * @see Reflector#Reflector(Class, boolean)
+   */
+  public ClassValueReflectorFactory(boolean directInvocationEnabled) {
+    super(directInvocationEnabled);
+  }
+
+  private ClassValue<Reflector> newReflectors() {
+    return new ClassValue<Reflector>() {
+      @Override
+      protected Reflector computeValue(Class<?> type) {
+        return createReflector(type);
+      }
+    };
+  }
+
+  @Override
+  public void setDirectInvocationEnabled(boolean directInvocationEnabled) {
+    super.setDirectInvocationEnabled(directInvocationEnabled);
+    // the values of a class value cannot be removed for every class at once
+    reflectors = newReflectors();
+  }
+
+  @Override
+  public Reflector findForClass(Class<?> type) {
+    if (isClassCacheEnabled()) {
+      return reflectors.get(type);
+    } else {
+      return createReflector(type);
+    }
+  }
+
+}
@@ -18,13 +18,25 @@ package org.apache.ibatis.reflection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import org.apache.ibatis.reflection.metadata.ReflectorMetadata;
+
 public class DefaultReflectorFactory implements ReflectorFactory {
   private boolean classCacheEnabled = true;
+  private boolean directInvocationEnabled;
   private final ConcurrentMap<Class<?>, Reflector> reflectorMap = new ConcurrentHashMap<>();
 
   public DefaultReflectorFactory() {
   }
 
+  /**
+   * @param directInvocationEnabled whether the reflectors access properties through direct invokers
+   * @since 3.5.0
+   * @see Reflector#Reflector(Class, boolean)
+   */
+  public DefaultReflectorFactory(boolean directInvocationEnabled) {
+    this.directInvocationEnabled = directInvocationEnabled;
+  }
+
   @Override
   public boolean isClassCacheEnabled() {
     return classCacheEnabled;
@@ -35,14 +47,44 @@ public class DefaultReflectorFactory implements ReflectorFactory {
     this.classCacheEnabled = classCacheEnabled;
   }
 
+  /**
+   * @since 3.5.0
+   */
+  public boolean isDirectInvocationEnabled() {
+    return directInvocationEnabled;
+  }
+
+  /**
+   * Selects the invokers of the reflectors created afterwards: direct invokers, bound once per property, or
+   * reflection. Reflectors already cached are discarded.
+   *
+   * @since 3.5.0
+   */
+  public void setDirectInvocationEnabled(boolean directInvocationEnabled) {
+    this.directInvocationEnabled = directInvocationEnabled;
+    reflectorMap.clear();
+  }
+
   @Override
   public Reflector findForClass(Class<?> type) {
     if (classCacheEnabled) {
             // synchronized (type) removed see issue #461
-      return reflectorMap.computeIfAbsent(type, Reflector::new);
+      return reflectorMap.computeIfAbsent(type, this::createReflector);
     } else {
-      return new Reflector(type);
+      return createReflector(type);
+    }
+  }
+
+  Reflector createReflector(Class<?> type) {
+    ReflectorMetadata metadata = ReflectorMetadata.forClass(type);
+    if (metadata != null && Reflector.canControlMemberAccessible()) {
+      try {
+        return new Reflector(type, metadata, directInvocationEnabled);
+      } catch (ReflectionException e) {
+        // Ignored. The metadata is outdated, the class is reflected instead.
+      }
     }
+    return new Reflector(type, directInvocationEnabled);
   }
 
 }
@@ -159,6 +159,14 @@ public class MetaClass {
     }
   }
 
+  /**
+   * @since 3.5.0
+   * @see Reflector#getPropertyPath(String)
+   */
+  public PropertyPath getPropertyPath(String expression) {
+    return reflector.getPropertyPath(expression);
+  }
+
   public Invoker getGetInvoker(String name) {
     return reflector.getGetInvoker(name);
   }
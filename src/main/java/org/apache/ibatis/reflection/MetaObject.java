@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -32,8 +32,9 @@ import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
  */
 public class MetaObject {
 
-  private final Object originalObject;
-  private final ObjectWrapper objectWrapper;
+  // not final only for reset(Object), which the result set handler uses to reuse the meta objects of its rows
+  private Object originalObject;
+  private ObjectWrapper objectWrapper;
   private final ObjectFactory objectFactory;
   private final ObjectWrapperFactory objectWrapperFactory;
   private final ReflectorFactory reflectorFactory;
@@ -43,17 +44,20 @@ public class MetaObject {
     this.objectFactory = objectFactory;
     this.objectWrapperFactory = objectWrapperFactory;
     this.reflectorFactory = reflectorFactory;
+    this.objectWrapper = createObjectWrapper(object);
+  }
 
+  private ObjectWrapper createObjectWrapper(Object object) {
     if (object instanceof ObjectWrapper) {
-      this.objectWrapper = (ObjectWrapper) object;
+      return (ObjectWrapper) object;
     } else if (objectWrapperFactory.hasWrapperFor(object)) {
-      this.objectWrapper = objectWrapperFactory.getWrapperFor(this, object);
+      return objectWrapperFactory.getWrapperFor(this, object);
     } else if (object instanceof Map) {
-      this.objectWrapper = new MapWrapper(this, (Map) object);
+      return new MapWrapper(this, (Map) object);
     } else if (object instanceof Collection) {
-      this.objectWrapper = new CollectionWrapper(this, (Collection) object);
+      return new CollectionWrapper(this, (Collection) object);
     } else {
-      this.objectWrapper = new BeanWrapper(this, object);
+      return new BeanWrapper(this, object);
     }
   }
 
@@ -65,6 +69,33 @@ public class MetaObject {
     }
   }
 
+  /**
+   * Makes this meta object wrap another object. The bean wrapper is kept if both objects are beans of the same type,
+   * other wrappers are created again.
+   * <p>
+   * <b>Internal API</b>: this is only meant for the result set handler, which reuses the meta objects of the rows it
+   * maps. A meta object must never be reset once it has been handed over to others (e.g. kept by a lazy loader),
+   * as they would silently see another object.
+   * </p>
+   *
+   * @param object the object to wrap instead of the current one, not {@code null}
+   * @since 3.5.0
+   * @deprecated internal API of the result mapping, not meant to be called by applications:
+   *     meta objects are otherwise bound to a single object
+   */
+  @Deprecated
+  public void reset(Object object) {
+    if (object == null || this == SystemMetaObject.NULL_META_OBJECT) {
+      throw new ReflectionException("Cannot reset the meta object of " + originalObject + " with " + object + ".");
+    }
+    if (objectWrapper.getClass() == BeanWrapper.class && object.getClass() == originalObject.getClass()) {
+      ((BeanWrapper) objectWrapper).reset(object);
+    } else {
+      objectWrapper = createObjectWrapper(object);
+    }
+    originalObject = object;
+  }
+
   public ObjectFactory getObjectFactory() {
     return objectFactory;
   }
@@ -110,6 +141,13 @@ public class MetaObject {
   }
 
   public Object getValue(String name) {
+    if (objectWrapper.getClass() == BeanWrapper.class && PropertyPath.isCacheable(name)) {
+      return ((BeanWrapper) objectWrapper).getPropertyPath(name).getValue(this);
+    }
+    return getValueByTokens(name);
+  }
+
+  Object getValueByTokens(String name) {
     PropertyTokenizer prop = new PropertyTokenizer(name);
     if (prop.hasNext()) {
       MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
@@ -124,6 +162,14 @@ public class MetaObject {
   }
 
   public void setValue(String name, Object value) {
+    if (objectWrapper.getClass() == BeanWrapper.class && PropertyPath.isCacheable(name)) {
+      ((BeanWrapper) objectWrapper).getPropertyPath(name).setValue(this, value);
+    } else {
+      setValueByTokens(name, value);
+    }
+  }
+
+  void setValueByTokens(String name, Object value) {
     PropertyTokenizer prop = new PropertyTokenizer(name);
     if (prop.hasNext()) {
       MetaObject metaValue = metaObjectForProperty(prop.getIndexedName());
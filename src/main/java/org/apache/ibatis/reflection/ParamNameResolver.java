@@ -17,10 +17,16 @@ package org.apache.ibatis.reflection;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
@@ -49,6 +55,14 @@ public class ParamNameResolver {
 
   private boolean hasParamAnnotation;
 
+  /**
+   * Keys of the parameter map (the names followed by the generic names) and the index of the
+   * argument each of them refers to. Resolved once per method and shared by every invocation.
+   */
+  private final String[] paramKeys;
+  private final int[] argIndexes;
+  private final Map<String, Integer> keyIndexes;
+
   public ParamNameResolver(Configuration config, Method method) {
     final Class<?>[] paramTypes = method.getParameterTypes();
     final Annotation[][] paramAnnotations = method.getParameterAnnotations();
@@ -82,6 +96,29 @@ public class ParamNameResolver {
       map.put(paramIndex, name);
     }
     names = Collections.unmodifiableSortedMap(map);
+
+    final Map<String, Integer> keys = new HashMap<>();
+    int i = 0;
+    for (Map.Entry<Integer, String> entry : names.entrySet()) {
+      keys.put(entry.getValue(), entry.getKey());
+      // add generic param names (param1, param2, ...)
+      final String genericParamName = GENERIC_NAME_PREFIX + String.valueOf(i + 1);
+      // ensure not to overwrite parameter named with @Param
+      if (!names.containsValue(genericParamName)) {
+        keys.put(genericParamName, entry.getKey());
+      }
+      i++;
+    }
+    paramKeys = new String[keys.size()];
+    argIndexes = new int[keys.size()];
+    keyIndexes = new HashMap<>();
+    int keyIndex = 0;
+    for (Map.Entry<String, Integer> entry : keys.entrySet()) {
+      paramKeys[keyIndex] = entry.getKey();
+      argIndexes[keyIndex] = entry.getValue();
+      keyIndexes.put(entry.getKey(), keyIndex);
+      keyIndex++;
+    }
   }
 
   private String getActualParamName(Method method, int paramIndex) {
@@ -114,19 +151,195 @@ public class ParamNameResolver {
     } else if (!hasParamAnnotation && paramCount == 1) {
       return args[names.firstKey()];
     } else {
-      final Map<String, Object> param = new ParamMap<>();
-      int i = 0;
-      for (Map.Entry<Integer, String> entry : names.entrySet()) {
-        param.put(entry.getValue(), args[entry.getKey()]);
-        // add generic param names (param1, param2, ...)
-        final String genericParamName = GENERIC_NAME_PREFIX + String.valueOf(i + 1);
-        // ensure not to overwrite parameter named with @Param
-        if (!names.containsValue(genericParamName)) {
-          param.put(genericParamName, args[entry.getKey()]);
+      return new ArgsParamMap(this, args);
+    }
+  }
+
+  /**
+   * A {@link ParamMap} that reads the arguments of a single invocation in place. The entries are
+   * copied into the underlying map only when the map is modified or iterated.
+   */
+  private static final class ArgsParamMap extends ParamMap<Object> {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient ParamNameResolver resolver;
+    private transient Object[] args;
+
+    ArgsParamMap(ParamNameResolver resolver, Object[] args) {
+      this.resolver = resolver;
+      this.args = args;
+    }
+
+    private Integer keyIndex(Object key) {
+      return resolver == null ? null : resolver.keyIndexes.get(key);
+    }
+
+    private void copyArgs() {
+      if (resolver != null) {
+        final ParamNameResolver resolver = this.resolver;
+        this.resolver = null;
+        for (int i = 0; i < resolver.paramKeys.length; i++) {
+          super.put(resolver.paramKeys[i], args[resolver.argIndexes[i]]);
         }
-        i++;
+        args = null;
       }
-      return param;
     }
+
+    @Override
+    public Object get(Object key) {
+      Integer index = keyIndex(key);
+      if (index != null) {
+        return args[resolver.argIndexes[index]];
+      }
+      copyArgs();
+      return super.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      if (keyIndex(key) != null) {
+        return true;
+      }
+      copyArgs();
+      return super.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return resolver == null ? super.size() : resolver.paramKeys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return size() == 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+      copyArgs();
+      return super.containsValue(value);
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+      copyArgs();
+      return super.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+      copyArgs();
+      return super.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> m) {
+      copyArgs();
+      super.putAll(m);
+    }
+
+    @Override
+    public Object remove(Object key) {
+      copyArgs();
+      return super.remove(key);
+    }
+
+    @Override
+    public void clear() {
+      copyArgs();
+      super.clear();
+    }
+
+    @Override
+    public Set<String> keySet() {
+      copyArgs();
+      return super.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+      copyArgs();
+      return super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+      copyArgs();
+      return super.entrySet();
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+      copyArgs();
+      return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+      copyArgs();
+      return super.remove(key, value);
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+      copyArgs();
+      return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+      copyArgs();
+      return super.replace(key, value);
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+      copyArgs();
+      return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+      copyArgs();
+      return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+      copyArgs();
+      return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+      copyArgs();
+      return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+      copyArgs();
+      super.forEach(action);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+      copyArgs();
+      super.replaceAll(function);
+    }
+
+    @Override
+    public Object clone() {
+      copyArgs();
+      return super.clone();
+    }
+
+    private Object writeReplace() {
+      copyArgs();
+      return this;
+    }
+
   }
+
 }
@@ -0,0 +1,235 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+
+/**
+ * Property expression (e.g. {@code order.items[0].price}) parsed once for a bean type.
+ * <p>
+ * Paths without an index are cached by the {@link Reflector} of the root type (see
+ * {@link Reflector#getPropertyPath(String)}).
+ * The invokers of the first property are resolved against the root type; the invokers of the nested properties are
+ * resolved against the type of the first value they are read from and kept as long as that type does not change.
+ * Maps, collections and objects that have a custom {@link ObjectWrapper} are accessed through a {@link MetaObject}
+ * for the rest of the path, so the results are the same as those of {@link MetaObject#getValue(String)} and
+ * {@link MetaObject#setValue(String, Object)}.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+public class PropertyPath {
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final String expression;
+  private final Segment[] segments;
+
+  PropertyPath(Reflector reflector, String expression) {
+    this.expression = expression;
+    List<Segment> list = new ArrayList<>();
+    PropertyTokenizer prop = new PropertyTokenizer(expression);
+    String remaining = expression;
+    while (true) {
+      list.add(new Segment(prop, remaining));
+      if (!prop.hasNext()) {
+        break;
+      }
+      remaining = prop.getChildren();
+      prop = prop.next();
+    }
+    this.segments = list.toArray(new Segment[list.size()]);
+    this.segments[0].binding = new Binding(reflector, segments[0].name);
+  }
+
+  public String getExpression() {
+    return expression;
+  }
+
+  static boolean isCacheable(String expression) {
+    return expression.indexOf('[') == -1;
+  }
+
+  /**
+   * @param metaObject the meta object of a bean of the type this path has been created for
+   * @return the same value as {@link MetaObject#getValue(String)}
+   */
+  public Object getValue(MetaObject metaObject) {
+    Object object = metaObject.getOriginalObject();
+    int last = segments.length - 1;
+    for (int i = 0; i < last; i++) {
+      if (i > 0 && !isBean(object, metaObject)) {
+        return metaObjectFor(object, metaObject).getValue(segments[i].remaining);
+      }
+      object = segments[i].get(object, metaObject);
+      if (object == null) {
+        return null;
+      }
+    }
+    if (last > 0 && !isBean(object, metaObject)) {
+      return metaObjectFor(object, metaObject).getValue(segments[last].remaining);
+    }
+    return segments[last].get(object, metaObject);
+  }
+
+  /**
+   * @param metaObject the meta object of a bean of the type this path has been created for
+   * @param value the value to set, as {@link MetaObject#setValue(String, Object)} does
+   */
+  public void setValue(MetaObject metaObject, Object value) {
+    Object object = metaObject.getOriginalObject();
+    int last = segments.length - 1;
+    for (int i = 0; i < last; i++) {
+      Segment segment = segments[i];
+      if (i > 0 && !isBean(object, metaObject)) {
+        metaObjectFor(object, metaObject).setValue(segment.remaining, value);
+        return;
+      }
+      Object child = segment.get(object, metaObject);
+      if (child == null) {
+        if (value == null) {
+          // don't instantiate child path if value is null
+          return;
+        } else if (segment.index != null) {
+          (i == 0 ? metaObject : metaObjectFor(object, metaObject)).setValueByTokens(segment.remaining, value);
+          return;
+        }
+        child = segment.instantiate(object, metaObject);
+      }
+      object = child;
+    }
+    Segment segment = segments[last];
+    if (last > 0 && !isBean(object, metaObject)) {
+      metaObjectFor(object, metaObject).setValue(segment.remaining, value);
+    } else if (segment.index != null) {
+      (last == 0 ? metaObject : metaObjectFor(object, metaObject)).setValueByTokens(segment.remaining, value);
+    } else {
+      segment.set(object, value, metaObject);
+    }
+  }
+
+  private static boolean isBean(Object object, MetaObject metaObject) {
+    return !(object instanceof ObjectWrapper || object instanceof Map || object instanceof Collection
+        || metaObject.getObjectWrapperFactory().hasWrapperFor(object));
+  }
+
+  private static MetaObject metaObjectFor(Object object, MetaObject metaObject) {
+    return MetaObject.forObject(object, metaObject.getObjectFactory(), metaObject.getObjectWrapperFactory(), metaObject.getReflectorFactory());
+  }
+
+  private static final class Segment {
+    private final String name;
+    private final String index;
+    private final String remaining;
+    private volatile Binding binding;
+
+    Segment(PropertyTokenizer prop, String remaining) {
+      this.name = prop.getName();
+      this.index = prop.getIndex();
+      this.remaining = remaining;
+    }
+
+    private Binding bind(Object object, MetaObject metaObject) {
+      Binding current = binding;
+      if (current == null || current.reflector.getType() != object.getClass()) {
+        current = new Binding(metaObject.getReflectorFactory().findForClass(object.getClass()), name);
+        binding = current;
+      }
+      return current;
+    }
+
+    Object get(Object object, MetaObject metaObject) {
+      if (index == null) {
+        return getProperty(object, metaObject);
+      }
+      Object collection = "".equals(name) ? object : getProperty(object, metaObject);
+      if (collection instanceof Map) {
+        return ((Map<?, ?>) collection).get(index);
+      }
+      int i = Integer.parseInt(index);
+      if (collection instanceof List) {
+        return ((List<?>) collection).get(i);
+      } else if (collection != null && collection.getClass().isArray()) {
+        return Array.get(collection, i);
+      } else {
+        throw new ReflectionException("The '" + name + "' property of " + collection + " is not a List or Array.");
+      }
+    }
+
+    private Object getProperty(Object object, MetaObject metaObject) {
+      Binding current = bind(object, metaObject);
+      try {
+        Invoker method = current.getter != null ? current.getter : current.reflector.getGetInvoker(name);
+        try {
+          return method.invoke(object, NO_ARGUMENTS);
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not get property '" + name + "' from " + object.getClass() + ".  Cause: " + t.toString(), t);
+      }
+    }
+
+    void set(Object object, Object value, MetaObject metaObject) {
+      Binding current = bind(object, metaObject);
+      try {
+        Invoker method = current.setter != null ? current.setter : current.reflector.getSetInvoker(name);
+        Object[] params = {value};
+        try {
+          method.invoke(object, params);
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not set property '" + name + "' of '" + object.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+      }
+    }
+
+    Object instantiate(Object object, MetaObject metaObject) {
+      Class<?> type = bind(object, metaObject).reflector.getSetterType(name);
+      try {
+        Object newObject = metaObject.getObjectFactory().create(type);
+        set(object, newObject, metaObject);
+        return newObject;
+      } catch (Exception e) {
+        throw new ReflectionException("Cannot set value of property '" + remaining + "' because '" + remaining + "' is null and cannot be instantiated on instance of " + type.getName() + ". Cause:" + e.toString(), e);
+      }
+    }
+  }
+
+  private static final class Binding {
+    private final Reflector reflector;
+    private final Invoker getter;
+    private final Invoker setter;
+
+    Binding(Reflector reflector, String name) {
+      this.reflector = reflector;
+      this.getter = reflector.hasGetter(name) ? reflector.getGetInvoker(name) : null;
+      this.setter = reflector.hasSetter(name) ? reflector.getSetInvoker(name) : null;
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.ibatis.reflection.invoker.Invoker;
+
+/**
+ * The properties of a {@link Reflector} in a compact form.
+ * <p>
+ * The invokers and types of the properties are kept in arrays, in the order of the sorted property names, and are
+ * found through an open addressing table of the name hashes instead of a map entry per property. The names
+ * matched regardless of case use the same layout and refer to the property names.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+final class PropertyTable {
+
+  private final String[] names;
+  private final int[] slots;
+  private final Invoker[] getInvokers;
+  private final Class<?>[] getTypes;
+  private final Invoker[] setInvokers;
+  private final Class<?>[] setTypes;
+
+  private final String[] caseInsensitiveNames;
+  private final int[] caseInsensitiveSlots;
+  private final int[] caseInsensitiveProperties;
+
+  PropertyTable(Map<String, Invoker> getMethods, Map<String, Class<?>> getTypes, Map<String, Invoker> setMethods,
+      Map<String, Class<?>> setTypes, String[] readablePropertyNames, String[] writeablePropertyNames) {
+    TreeSet<String> propertyNames = new TreeSet<>(getMethods.keySet());
+    propertyNames.addAll(setMethods.keySet());
+    this.names = propertyNames.toArray(new String[propertyNames.size()]);
+    this.slots = createSlots(names);
+    this.getInvokers = new Invoker[names.length];
+    this.getTypes = new Class<?>[names.length];
+    this.setInvokers = new Invoker[names.length];
+    this.setTypes = new Class<?>[names.length];
+    for (int i = 0; i < names.length; i++) {
+      this.getInvokers[i] = getMethods.get(names[i]);
+      this.getTypes[i] = getTypes.get(names[i]);
+      this.setInvokers[i] = setMethods.get(names[i]);
+      this.setTypes[i] = setTypes.get(names[i]);
+    }
+
+    Map<String, String> caseInsensitivePropertyMap = new LinkedHashMap<>();
+    for (String propName : readablePropertyNames) {
+      caseInsensitivePropertyMap.put(propName.toUpperCase(Locale.ENGLISH), propName);
+    }
+    for (String propName : writeablePropertyNames) {
+      caseInsensitivePropertyMap.put(propName.toUpperCase(Locale.ENGLISH), propName);
+    }
+    this.caseInsensitiveNames = caseInsensitivePropertyMap.keySet().toArray(new String[caseInsensitivePropertyMap.size()]);
+    this.caseInsensitiveSlots = createSlots(caseInsensitiveNames);
+    this.caseInsensitiveProperties = new int[caseInsensitiveNames.length];
+    for (int i = 0; i < caseInsensitiveNames.length; i++) {
+      caseInsensitiveProperties[i] = Arrays.binarySearch(names, caseInsensitivePropertyMap.get(caseInsensitiveNames[i]));
+    }
+  }
+
+  private static int[] createSlots(String[] keys) {
+    int capacity = 2;
+    while (capacity < keys.length * 2) {
+      capacity <<= 1;
+    }
+    int[] slots = new int[capacity];
+    for (int i = 0; i < keys.length; i++) {
+      int slot = hash(keys[i]) & (capacity - 1);
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+      // 0 marks an empty slot
+      slots[slot] = i + 1;
+    }
+    return slots;
+  }
+
+  private static int hash(String key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int indexOf(String[] keys, int[] slots, String key) {
+    if (key == null) {
+      return -1;
+    }
+    int mask = slots.length - 1;
+    for (int slot = hash(key) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+      String candidate = keys[slots[slot] - 1];
+      if (candidate == key || candidate.equals(key)) {
+        return slots[slot] - 1;
+      }
+    }
+    return -1;
+  }
+
+  private int indexOf(String propertyName) {
+    return indexOf(names, slots, propertyName);
+  }
+
+  Invoker getGetInvoker(String propertyName) {
+    int index = indexOf(propertyName);
+    return index < 0 ? null : getInvokers[index];
+  }
+
+  Class<?> getGetterType(String propertyName) {
+    int index = indexOf(propertyName);
+    return index < 0 ? null : getTypes[index];
+  }
+
+  Invoker getSetInvoker(String propertyName) {
+    int index = indexOf(propertyName);
+    return index < 0 ? null : setInvokers[index];
+  }
+
+  Class<?> getSetterType(String propertyName) {
+    int index = indexOf(propertyName);
+    return index < 0 ? null : setTypes[index];
+  }
+
+  String findPropertyName(String upperCaseName) {
+    int index = indexOf(caseInsensitiveNames, caseInsensitiveSlots, upperCaseName);
+    return index < 0 ? null : names[caseInsensitiveProperties[index]];
+  }
+
+}
@@ -31,11 +31,17 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.ibatis.reflection.invoker.DirectGetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.DirectMethodInvoker;
+import org.apache.ibatis.reflection.invoker.DirectSetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.Invoker;
 import org.apache.ibatis.reflection.invoker.MethodInvoker;
 import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
+import org.apache.ibatis.reflection.metadata.ReflectorMetadata;
 import org.apache.ibatis.reflection.property.PropertyNamer;
 
 /**
@@ -46,31 +52,168 @@ import org.apache.ibatis.reflection.property.PropertyNamer;
  */
 public class Reflector {
 
+  private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+
+  static {
+    for (Class<?> primitiveType : new Class<?>[] { boolean.class, byte.class, char.class, short.class, int.class,
+        long.class, float.class, double.class, void.class }) {
+      PRIMITIVE_TYPES.put(primitiveType.getName(), primitiveType);
+    }
+  }
+
   private final Class<?> type;
+  private final boolean directInvocationEnabled;
   private final String[] readablePropertyNames;
   private final String[] writeablePropertyNames;
-  private final Map<String, Invoker> setMethods = new HashMap<>();
-  private final Map<String, Invoker> getMethods = new HashMap<>();
-  private final Map<String, Class<?>> setTypes = new HashMap<>();
-  private final Map<String, Class<?>> getTypes = new HashMap<>();
+  // only used while the properties are collected, then compacted into the property table
+  private Map<String, Invoker> setMethods = new HashMap<>();
+  private Map<String, Invoker> getMethods = new HashMap<>();
+  private Map<String, Class<?>> setTypes = new HashMap<>();
+  private Map<String, Class<?>> getTypes = new HashMap<>();
+  private final PropertyTable properties;
   private Constructor<?> defaultConstructor;
 
-  private Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
+  private final ConcurrentMap<String, PropertyPath> propertyPaths = new ConcurrentHashMap<>();
 
   public Reflector(Class<?> clazz) {
+    this(clazz, false);
+  }
+
+  /**
+   * @param clazz the class to reflect
+   * @param directInvocationEnabled whether getters, setters and fields are accessed through invokers bound once per
+   *          property (see {@link DirectMethodInvoker}) instead of through reflection
+   * @since 3.5.0
+   */
+  public Reflector(Class<?> clazz, boolean directInvocationEnabled) {
     type = clazz;
+    this.directInvocationEnabled = directInvocationEnabled;
     addDefaultConstructor(clazz);
     addGetMethods(clazz);
     addSetMethods(clazz);
     addFields(clazz);
     readablePropertyNames = getMethods.keySet().toArray(new String[getMethods.keySet().size()]);
     writeablePropertyNames = setMethods.keySet().toArray(new String[setMethods.keySet().size()]);
-    for (String propName : readablePropertyNames) {
-      caseInsensitivePropertyMap.put(propName.toUpperCase(Locale.ENGLISH), propName);
+    properties = new PropertyTable(getMethods, getTypes, setMethods, setTypes, readablePropertyNames, writeablePropertyNames);
+    releaseCollectedProperties();
+  }
+
+  /**
+   * Creates the reflector of a class from the metadata generated for it at build time,
+   * instead of looking for its properties by reflection.
+   *
+   * @param clazz the class to reflect
+   * @param metadata the metadata generated for the class
+   * @param directInvocationEnabled see {@link #Reflector(Class, boolean)}
+   * @throws ReflectionException if the metadata does not match the class
+   * @since 3.5.0
+   */
+  public Reflector(Class<?> clazz, ReflectorMetadata metadata, boolean directInvocationEnabled) {
+    if (!metadata.matches(clazz)) {
+      throw new ReflectionException("Reflector metadata of " + clazz + " is outdated: the class hierarchy changed since it was generated.");
     }
-    for (String propName : writeablePropertyNames) {
-      caseInsensitivePropertyMap.put(propName.toUpperCase(Locale.ENGLISH), propName);
+    type = clazz;
+    this.directInvocationEnabled = directInvocationEnabled;
+    addDefaultConstructor(clazz);
+    try {
+      for (ReflectorMetadata.Accessor getter : metadata.getGetters()) {
+        addGetAccessor(getter);
+      }
+      for (ReflectorMetadata.Accessor setter : metadata.getSetters()) {
+        addSetAccessor(setter);
+      }
+    } catch (ReflectiveOperationException e) {
+      throw new ReflectionException("Reflector metadata of " + clazz + " does not match the class. Cause: " + e, e);
     }
+    readablePropertyNames = getMethods.keySet().toArray(new String[getMethods.keySet().size()]);
+    writeablePropertyNames = setMethods.keySet().toArray(new String[setMethods.keySet().size()]);
+    properties = new PropertyTable(getMethods, getTypes, setMethods, setTypes, readablePropertyNames, writeablePropertyNames);
+    releaseCollectedProperties();
+  }
+
+  private void releaseCollectedProperties() {
+    getMethods = null;
+    setMethods = null;
+    getTypes = null;
+    setTypes = null;
+  }
+
+  private void addGetAccessor(ReflectorMetadata.Accessor accessor) throws ReflectiveOperationException {
+    Class<?> declaringClass = findDeclaringClass(accessor.getDeclaringClass());
+    if (accessor.isField()) {
+      Field field = makeAccessible(declaringClass.getDeclaredField(accessor.getMemberName()));
+      addGetField(accessor.getProperty(), field, accessor.getType() == null
+          ? typeToClass(TypeParameterResolver.resolveFieldType(field, type)) : classForName(accessor.getType()));
+    } else {
+      Method method = declaringClass.getDeclaredMethod(accessor.getMemberName());
+      setAccessible(method);
+      addGetMethod(accessor.getProperty(), method, accessor.getType() == null
+          ? typeToClass(TypeParameterResolver.resolveReturnType(method, type)) : classForName(accessor.getType()));
+    }
+  }
+
+  private void addSetAccessor(ReflectorMetadata.Accessor accessor) throws ReflectiveOperationException {
+    Class<?> declaringClass = findDeclaringClass(accessor.getDeclaringClass());
+    if (accessor.isField()) {
+      Field field = makeAccessible(declaringClass.getDeclaredField(accessor.getMemberName()));
+      addSetField(accessor.getProperty(), field, accessor.getType() == null
+          ? typeToClass(TypeParameterResolver.resolveFieldType(field, type)) : classForName(accessor.getType()));
+    } else {
+      Method method = declaringClass.getDeclaredMethod(accessor.getMemberName(), classForName(accessor.getParameterType()));
+      setAccessible(method);
+      addSetMethod(accessor.getProperty(), method, accessor.getType() == null
+          ? typeToClass(TypeParameterResolver.resolveParamTypes(method, type)[0]) : classForName(accessor.getType()));
+    }
+  }
+
+  private Class<?> findDeclaringClass(String className) throws ClassNotFoundException {
+    for (Class<?> currentClass = type; currentClass != null; currentClass = currentClass.getSuperclass()) {
+      if (currentClass.getName().equals(className)) {
+        return currentClass;
+      }
+      Class<?> anInterface = findInterface(currentClass, className);
+      if (anInterface != null) {
+        return anInterface;
+      }
+    }
+    throw new ClassNotFoundException(className);
+  }
+
+  private Class<?> findInterface(Class<?> cls, String className) {
+    for (Class<?> anInterface : cls.getInterfaces()) {
+      if (anInterface.getName().equals(className)) {
+        return anInterface;
+      }
+      Class<?> superInterface = findInterface(anInterface, className);
+      if (superInterface != null) {
+        return superInterface;
+      }
+    }
+    return null;
+  }
+
+  private Class<?> classForName(String className) throws ClassNotFoundException {
+    Class<?> primitiveType = PRIMITIVE_TYPES.get(className);
+    return primitiveType != null ? primitiveType : Class.forName(className, false, type.getClassLoader());
+  }
+
+  private void setAccessible(Method method) {
+    if (canControlMemberAccessible()) {
+      try {
+        method.setAccessible(true);
+      } catch (Exception e) {
+        // Ignored. This is only a final precaution, nothing we can do.
+      }
+    }
+  }
+
+  private Field makeAccessible(Field field) throws IllegalAccessException {
+    try {
+      field.setAccessible(true);
+    } catch (Exception e) {
+      throw new IllegalAccessException("Cannot access " + field + ". Cause: " + e);
+    }
+    return field;
   }
 
   private void addDefaultConstructor(Class<?> clazz) {
@@ -145,12 +288,16 @@ public class Reflector {
 
   private void addGetMethod(String name, Method method) {
     if (isValidPropertyName(name)) {
-      getMethods.put(name, new MethodInvoker(method));
       Type returnType = TypeParameterResolver.resolveReturnType(method, type);
-      getTypes.put(name, typeToClass(returnType));
+      addGetMethod(name, method, typeToClass(returnType));
     }
   }
 
+  private void addGetMethod(String name, Method method, Class<?> propertyType) {
+    getMethods.put(name, createMethodInvoker(method));
+    getTypes.put(name, propertyType);
+  }
+
   private void addSetMethods(Class<?> cls) {
     Map<String, List<Method>> conflictingSetters = new HashMap<>();
     Method[] methods = getClassMethods(cls);
@@ -220,12 +367,16 @@ public class Reflector {
 
   private void addSetMethod(String name, Method method) {
     if (isValidPropertyName(name)) {
-      setMethods.put(name, new MethodInvoker(method));
       Type[] paramTypes = TypeParameterResolver.resolveParamTypes(method, type);
-      setTypes.put(name, typeToClass(paramTypes[0]));
+      addSetMethod(name, method, typeToClass(paramTypes[0]));
     }
   }
 
+  private void addSetMethod(String name, Method method, Class<?> propertyType) {
+    setMethods.put(name, createMethodInvoker(method));
+    setTypes.put(name, propertyType);
+  }
+
   private Class<?> typeToClass(Type src) {
     Class<?> result = null;
     if (src instanceof Class) {
@@ -279,20 +430,32 @@ public class Reflector {
 
   private void addSetField(Field field) {
     if (isValidPropertyName(field.getName())) {
-      setMethods.put(field.getName(), new SetFieldInvoker(field));
       Type fieldType = TypeParameterResolver.resolveFieldType(field, type);
-      setTypes.put(field.getName(), typeToClass(fieldType));
+      addSetField(field.getName(), field, typeToClass(fieldType));
     }
   }
 
+  private void addSetField(String name, Field field, Class<?> propertyType) {
+    setMethods.put(name, directInvocationEnabled ? DirectSetFieldInvoker.create(field) : new SetFieldInvoker(field));
+    setTypes.put(name, propertyType);
+  }
+
   private void addGetField(Field field) {
     if (isValidPropertyName(field.getName())) {
-      getMethods.put(field.getName(), new GetFieldInvoker(field));
       Type fieldType = TypeParameterResolver.resolveFieldType(field, type);
-      getTypes.put(field.getName(), typeToClass(fieldType));
+      addGetField(field.getName(), field, typeToClass(fieldType));
     }
   }
 
+  private void addGetField(String name, Field field, Class<?> propertyType) {
+    getMethods.put(name, directInvocationEnabled ? DirectGetFieldInvoker.create(field) : new GetFieldInvoker(field));
+    getTypes.put(name, propertyType);
+  }
+
+  private MethodInvoker createMethodInvoker(Method method) {
+    return directInvocationEnabled ? DirectMethodInvoker.create(method) : new MethodInvoker(method);
+  }
+
   private boolean isValidPropertyName(String name) {
     return !(name.startsWith("$") || "serialVersionUID".equals(name) || "class".equals(name));
   }
@@ -408,7 +571,7 @@ public class Reflector {
   }
 
   public Invoker getSetInvoker(String propertyName) {
-    Invoker method = setMethods.get(propertyName);
+    Invoker method = properties.getSetInvoker(propertyName);
     if (method == null) {
       throw new ReflectionException("There is no setter for property named '" + propertyName + "' in '" + type + "'");
     }
@@ -416,7 +579,7 @@ public class Reflector {
   }
 
   public Invoker getGetInvoker(String propertyName) {
-    Invoker method = getMethods.get(propertyName);
+    Invoker method = properties.getGetInvoker(propertyName);
     if (method == null) {
       throw new ReflectionException("There is no getter for property named '" + propertyName + "' in '" + type + "'");
     }
@@ -430,7 +593,7 @@ public class Reflector {
    * @return The Class of the propery setter
    */
   public Class<?> getSetterType(String propertyName) {
-    Class<?> clazz = setTypes.get(propertyName);
+    Class<?> clazz = properties.getSetterType(propertyName);
     if (clazz == null) {
       throw new ReflectionException("There is no setter for property named '" + propertyName + "' in '" + type + "'");
     }
@@ -444,7 +607,7 @@ public class Reflector {
    * @return The Class of the propery getter
    */
   public Class<?> getGetterType(String propertyName) {
-    Class<?> clazz = getTypes.get(propertyName);
+    Class<?> clazz = properties.getGetterType(propertyName);
     if (clazz == null) {
       throw new ReflectionException("There is no getter for property named '" + propertyName + "' in '" + type + "'");
     }
@@ -476,7 +639,7 @@ public class Reflector {
    * @return True if the object has a writeable property by the name
    */
   public boolean hasSetter(String propertyName) {
-    return setMethods.keySet().contains(propertyName);
+    return properties.getSetInvoker(propertyName) != null;
   }
 
   /*
@@ -486,10 +649,27 @@ public class Reflector {
    * @return True if the object has a readable property by the name
    */
   public boolean hasGetter(String propertyName) {
-    return getMethods.keySet().contains(propertyName);
+    return properties.getGetInvoker(propertyName) != null;
+  }
+
+  /**
+   * @param expression a property expression, such as {@code order.items[0].price}
+   * @return the path of the expression on this type, parsed once unless the expression has an index
+   * @since 3.5.0
+   */
+  public PropertyPath getPropertyPath(String expression) {
+    if (!PropertyPath.isCacheable(expression)) {
+      // indexed expressions (e.g. items[123]) are not bounded by the properties of the type
+      return new PropertyPath(this, expression);
+    }
+    PropertyPath path = propertyPaths.get(expression);
+    if (path == null) {
+      path = propertyPaths.computeIfAbsent(expression, e -> new PropertyPath(this, e));
+    }
+    return path;
   }
 
   public String findPropertyName(String name) {
-    return caseInsensitivePropertyMap.get(name.toUpperCase(Locale.ENGLISH));
+    return properties.findPropertyName(name.toUpperCase(Locale.ENGLISH));
   }
 }
@@ -24,12 +24,27 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Iwao AVE!
  */
 public class TypeParameterResolver {
 
+  /**
+   * Types resolved so far, kept per source class. The resolved types can only refer to classes visible
+   * from the source class, so keeping them with the class does not prevent its class loader from being
+   * collected.
+   */
+  private static final ClassValue<ResolvedTypes> RESOLVED_TYPES = new ClassValue<ResolvedTypes>() {
+    @Override
+    protected ResolvedTypes computeValue(Class<?> type) {
+      return new ResolvedTypes();
+    }
+  };
+
   /**
    * @return The field type as {@link Type}. If it has type parameters in the declaration,<br>
    *         they will be resolved to the actual runtime {@link Type}s.
@@ -37,7 +52,12 @@ public class TypeParameterResolver {
   public static Type resolveFieldType(Field field, Type srcType) {
     Type fieldType = field.getGenericType();
     Class<?> declaringClass = field.getDeclaringClass();
-    return resolveType(fieldType, srcType, declaringClass);
+    if (fieldType instanceof Class || !(srcType instanceof Class)) {
+      return resolveType(fieldType, srcType, declaringClass);
+    }
+    ResolvedTypes resolvedTypes = RESOLVED_TYPES.get((Class<?>) srcType);
+    return resolvedTypes.fieldTypes.computeIfAbsent(field,
+        k -> resolvedTypes.canonicalize(resolveType(fieldType, srcType, declaringClass)));
   }
 
   /**
@@ -47,7 +67,12 @@ public class TypeParameterResolver {
   public static Type resolveReturnType(Method method, Type srcType) {
     Type returnType = method.getGenericReturnType();
     Class<?> declaringClass = method.getDeclaringClass();
-    return resolveType(returnType, srcType, declaringClass);
+    if (returnType instanceof Class || !(srcType instanceof Class)) {
+      return resolveType(returnType, srcType, declaringClass);
+    }
+    ResolvedTypes resolvedTypes = RESOLVED_TYPES.get((Class<?>) srcType);
+    return resolvedTypes.returnTypes.computeIfAbsent(method,
+        k -> resolvedTypes.canonicalize(resolveType(returnType, srcType, declaringClass)));
   }
 
   /**
@@ -55,11 +80,23 @@ public class TypeParameterResolver {
    *         they will be resolved to the actual runtime {@link Type}s.
    */
   public static Type[] resolveParamTypes(Method method, Type srcType) {
+    if (!(srcType instanceof Class)) {
+      return resolveParamTypes(method, srcType, null);
+    }
+    ResolvedTypes resolvedTypes = RESOLVED_TYPES.get((Class<?>) srcType);
+    return resolvedTypes.paramTypes.computeIfAbsent(method,
+        k -> resolveParamTypes(method, srcType, resolvedTypes)).clone();
+  }
+
+  private static Type[] resolveParamTypes(Method method, Type srcType, ResolvedTypes resolvedTypes) {
     Type[] paramTypes = method.getGenericParameterTypes();
     Class<?> declaringClass = method.getDeclaringClass();
     Type[] result = new Type[paramTypes.length];
     for (int i = 0; i < paramTypes.length; i++) {
       result[i] = resolveType(paramTypes[i], srcType, declaringClass);
+      if (resolvedTypes != null) {
+        result[i] = resolvedTypes.canonicalize(result[i]);
+      }
     }
     return result;
   }
@@ -218,12 +255,30 @@ public class TypeParameterResolver {
     super();
   }
 
+  private static class ResolvedTypes {
+    private final ConcurrentMap<Field, Type> fieldTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, Type> returnTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, Type[]> paramTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Type, Type> canonicalTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the first resolved instance equal to the given type so that members of the same type share it.
+     */
+    Type canonicalize(Type type) {
+      if (type instanceof Class) {
+        return type;
+      }
+      Type canonicalType = canonicalTypes.putIfAbsent(type, type);
+      return canonicalType == null ? type : canonicalType;
+    }
+  }
+
   static class ParameterizedTypeImpl implements ParameterizedType {
-    private Class<?> rawType;
+    private final Class<?> rawType;
 
-    private Type ownerType;
+    private final Type ownerType;
 
-    private Type[] actualTypeArguments;
+    private final Type[] actualTypeArguments;
 
     public ParameterizedTypeImpl(Class<?> rawType, Type ownerType, Type[] actualTypeArguments) {
       super();
@@ -234,7 +289,7 @@ public class TypeParameterResolver {
 
     @Override
     public Type[] getActualTypeArguments() {
-      return actualTypeArguments;
+      return actualTypeArguments.clone();
     }
 
     @Override
@@ -247,6 +302,24 @@ public class TypeParameterResolver {
       return rawType;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof ParameterizedType)) {
+        return false;
+      }
+      ParameterizedType other = (ParameterizedType) obj;
+      return rawType.equals(other.getRawType()) && Objects.equals(ownerType, other.getOwnerType())
+          && Arrays.equals(actualTypeArguments, other.getActualTypeArguments());
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType) ^ rawType.hashCode();
+    }
+
     @Override
     public String toString() {
       return "ParameterizedTypeImpl [rawType=" + rawType + ", ownerType=" + ownerType + ", actualTypeArguments=" + Arrays.toString(actualTypeArguments) + "]";
@@ -254,9 +327,9 @@ public class TypeParameterResolver {
   }
 
   static class WildcardTypeImpl implements WildcardType {
-    private Type[] lowerBounds;
+    private final Type[] lowerBounds;
 
-    private Type[] upperBounds;
+    private final Type[] upperBounds;
 
     WildcardTypeImpl(Type[] lowerBounds, Type[] upperBounds) {
       super();
@@ -266,17 +339,34 @@ public class TypeParameterResolver {
 
     @Override
     public Type[] getLowerBounds() {
-      return lowerBounds;
+      return lowerBounds.clone();
     }
 
     @Override
     public Type[] getUpperBounds() {
-      return upperBounds;
+      return upperBounds.clone();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof WildcardType)) {
+        return false;
+      }
+      WildcardType other = (WildcardType) obj;
+      return Arrays.equals(lowerBounds, other.getLowerBounds()) && Arrays.equals(upperBounds, other.getUpperBounds());
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(lowerBounds) ^ Arrays.hashCode(upperBounds);
     }
   }
 
   static class GenericArrayTypeImpl implements GenericArrayType {
-    private Type genericComponentType;
+    private final Type genericComponentType;
 
     GenericArrayTypeImpl(Type genericComponentType) {
       super();
@@ -287,5 +377,21 @@ public class TypeParameterResolver {
     public Type getGenericComponentType() {
       return genericComponentType;
     }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof GenericArrayType)) {
+        return false;
+      }
+      return Objects.equals(genericComponentType, ((GenericArrayType) obj).getGenericComponentType());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(genericComponentType);
+    }
   }
 }
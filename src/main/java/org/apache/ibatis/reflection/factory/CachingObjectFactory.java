@@ -0,0 +1,178 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.factory;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.lang.UsesJava7;
+
+/**
+ * An {@link ObjectFactory} that looks up the class to create and its constructors only once per type.
+ * <p>
+ * The interface-to-implementation resolution ({@link #resolveInterface(Class)}) of a type and each constructor
+ * used to create it are cached, and constructors are invoked through a {@link MethodHandle} bound to them.
+ * Arguments a method handle cannot take as is (e.g. values that need a widening conversion) are passed to
+ * the constructor through reflection, like {@link DefaultObjectFactory} does.
+ * </p>
+ * <pre>
+ * &lt;objectFactory type="org.apache.ibatis.reflection.factory.CachingObjectFactory"/&gt;
+ * </pre>
+ *
+ * @since 3.5.0
+ */
+public class CachingObjectFactory extends DefaultObjectFactory {
+
+  private static final long serialVersionUID = 3963997400934431453L;
+
+  private static final MethodType DEFAULT_CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+  private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+  private transient ConcurrentMap<Class<?>, Instantiators> instantiators = new ConcurrentHashMap<>();
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T create(Class<T> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
+    Instantiators typeInstantiators = instantiators.computeIfAbsent(type, t -> new Instantiators(resolveInterface(t)));
+    Instantiator instantiator = null;
+    try {
+      if (constructorArgTypes == null || constructorArgs == null) {
+        instantiator = typeInstantiators.getDefaultInstantiator();
+        return (T) instantiator.newInstance();
+      }
+      instantiator = typeInstantiators.getInstantiator(constructorArgTypes);
+      return (T) instantiator.newInstance(constructorArgs.toArray());
+    } catch (Exception e) {
+      throw instantiationException(typeInstantiators.classToCreate, constructorArgTypes, constructorArgs, e);
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    instantiators = new ConcurrentHashMap<>();
+  }
+
+  private static class Instantiators {
+    private final Class<?> classToCreate;
+    private volatile Instantiator defaultInstantiator;
+    private final ConcurrentMap<List<Class<?>>, Instantiator> instantiators = new ConcurrentHashMap<>();
+
+    Instantiators(Class<?> classToCreate) {
+      this.classToCreate = classToCreate;
+    }
+
+    Instantiator getDefaultInstantiator() throws Exception {
+      Instantiator instantiator = defaultInstantiator;
+      if (instantiator == null) {
+        instantiator = new Instantiator(classToCreate.getDeclaredConstructor());
+        defaultInstantiator = instantiator;
+      }
+      return instantiator;
+    }
+
+    Instantiator getInstantiator(List<Class<?>> constructorArgTypes) throws Exception {
+      Instantiator instantiator = instantiators.get(constructorArgTypes);
+      if (instantiator == null) {
+        Class<?>[] parameterTypes = constructorArgTypes.toArray(new Class<?>[constructorArgTypes.size()]);
+        instantiator = new Instantiator(classToCreate.getDeclaredConstructor(parameterTypes));
+        // the argument types list of the caller may be modified later
+        instantiators.putIfAbsent(new ArrayList<>(constructorArgTypes), instantiator);
+      }
+      return instantiator;
+    }
+  }
+
+  @UsesJava7
+  private static class Instantiator {
+    private final Constructor<?> constructor;
+    private final Class<?>[] argumentTypes;
+    private final boolean[] primitiveArguments;
+    private final MethodHandle handle;
+
+    Instantiator(Constructor<?> constructor) {
+      if (!constructor.isAccessible()) {
+        constructor.setAccessible(true);
+      }
+      this.constructor = constructor;
+      Class<?>[] parameterTypes = constructor.getParameterTypes();
+      this.argumentTypes = new Class<?>[parameterTypes.length];
+      this.primitiveArguments = new boolean[parameterTypes.length];
+      for (int i = 0; i < parameterTypes.length; i++) {
+        argumentTypes[i] = MethodType.methodType(parameterTypes[i]).wrap().returnType();
+        primitiveArguments[i] = parameterTypes[i].isPrimitive();
+      }
+      this.handle = createHandle(constructor);
+    }
+
+    private static MethodHandle createHandle(Constructor<?> constructor) {
+      try {
+        MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+        int parameterCount = constructor.getParameterTypes().length;
+        if (parameterCount == 0) {
+          return handle.asType(DEFAULT_CONSTRUCTOR_TYPE);
+        }
+        return handle.asSpreader(Object[].class, parameterCount).asType(CONSTRUCTOR_TYPE);
+      } catch (IllegalAccessException e) {
+        // e.g. an abstract class, reflection reports the error
+        return null;
+      }
+    }
+
+    Object newInstance() throws Exception {
+      if (handle == null || argumentTypes.length != 0) {
+        return constructor.newInstance();
+      }
+      try {
+        return (Object) handle.invokeExact();
+      } catch (Throwable e) {
+        throw new InvocationTargetException(e);
+      }
+    }
+
+    Object newInstance(Object[] args) throws Exception {
+      if (handle == null || args.length == 0 || !isAssignable(args)) {
+        return constructor.newInstance(args);
+      }
+      try {
+        return (Object) handle.invokeExact(args);
+      } catch (Throwable e) {
+        throw new InvocationTargetException(e);
+      }
+    }
+
+    private boolean isAssignable(Object[] args) {
+      if (args.length != argumentTypes.length) {
+        return false;
+      }
+      for (int i = 0; i < args.length; i++) {
+        if (args[i] == null ? primitiveArguments[i] : !argumentTypes[i].isInstance(args[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+}
@@ -71,24 +71,28 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
       }
       return constructor.newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
     } catch (Exception e) {
-      StringBuilder argTypes = new StringBuilder();
-      if (constructorArgTypes != null && !constructorArgTypes.isEmpty()) {
-        for (Class<?> argType : constructorArgTypes) {
-          argTypes.append(argType.getSimpleName());
-          argTypes.append(",");
-        }
-        argTypes.deleteCharAt(argTypes.length() - 1); // remove trailing ,
+      throw instantiationException(type, constructorArgTypes, constructorArgs, e);
+    }
+  }
+
+  static ReflectionException instantiationException(Class<?> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs, Exception e) {
+    StringBuilder argTypes = new StringBuilder();
+    if (constructorArgTypes != null && !constructorArgTypes.isEmpty()) {
+      for (Class<?> argType : constructorArgTypes) {
+        argTypes.append(argType.getSimpleName());
+        argTypes.append(",");
       }
-      StringBuilder argValues = new StringBuilder();
-      if (constructorArgs != null && !constructorArgs.isEmpty()) {
-        for (Object argValue : constructorArgs) {
-          argValues.append(String.valueOf(argValue));
-          argValues.append(",");
-        }
-        argValues.deleteCharAt(argValues.length() - 1); // remove trailing ,
+      argTypes.deleteCharAt(argTypes.length() - 1); // remove trailing ,
+    }
+    StringBuilder argValues = new StringBuilder();
+    if (constructorArgs != null && !constructorArgs.isEmpty()) {
+      for (Object argValue : constructorArgs) {
+        argValues.append(String.valueOf(argValue));
+        argValues.append(",");
       }
-      throw new ReflectionException("Error instantiating " + type + " with invalid types (" + argTypes + ") or values (" + argValues + "). Cause: " + e, e);
+      argValues.deleteCharAt(argValues.length() - 1); // remove trailing ,
     }
+    return new ReflectionException("Error instantiating " + type + " with invalid types (" + argTypes + ") or values (" + argValues + "). Cause: " + e, e);
   }
 
   protected Class<?> resolveInterface(Class<?> type) {
@@ -0,0 +1,70 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+import org.apache.ibatis.lang.UsesJava7;
+
+/**
+ * Invoker that reads a field through a {@link MethodHandle} bound once, instead of through reflection.
+ *
+ * @since 3.5.0
+ */
+@UsesJava7
+public class DirectGetFieldInvoker extends GetFieldInvoker {
+
+  private final Class<?> targetType;
+  private final MethodHandle getter;
+
+  private DirectGetFieldInvoker(Field field, MethodHandle getter) {
+    super(field);
+    this.targetType = field.getDeclaringClass();
+    this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+  }
+
+  /**
+   * @param field a field of which the accessible flag has been set if needed
+   * @return a direct invoker, or a {@link GetFieldInvoker} if access to the field is denied
+   */
+  public static GetFieldInvoker create(Field field) {
+    if (Modifier.isStatic(field.getModifiers())) {
+      return new GetFieldInvoker(field);
+    }
+    try {
+      return new DirectGetFieldInvoker(field, MethodHandles.lookup().unreflectGetter(field));
+    } catch (IllegalAccessException e) {
+      return new GetFieldInvoker(field);
+    }
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    if (!targetType.isInstance(target)) {
+      return super.invoke(target, args);
+    }
+    try {
+      return (Object) getter.invokeExact(target);
+    } catch (Throwable e) {
+      throw new InvocationTargetException(e);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.ibatis.lang.UsesJava7;
+
+/**
+ * Invoker of a getter or setter that calls the method directly instead of through reflection.
+ * <p>
+ * The method is bound once, to a {@link Function} (getter) or {@link BiConsumer} (setter) generated by the
+ * {@link LambdaMetafactory} when the method and its types are public and visible from MyBatis, and to a
+ * {@link MethodHandle} otherwise. Calls this invoker cannot handle the same way as {@link MethodInvoker}
+ * (e.g. arguments that need a widening conversion) are delegated to reflection.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+@UsesJava7
+public class DirectMethodInvoker extends MethodInvoker {
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Class<?> targetType;
+  private final Class<?> argumentType;
+  private final boolean primitiveArgument;
+  private final Function<Object, Object> getter;
+  private final BiConsumer<Object, Object> setter;
+  private final MethodHandle handle;
+
+  private DirectMethodInvoker(Method method, MethodHandle handle, boolean lambda) throws Throwable {
+    super(method);
+    this.targetType = method.getDeclaringClass();
+    if (method.getParameterTypes().length == 1) {
+      Class<?> parameterType = method.getParameterTypes()[0];
+      this.argumentType = MethodType.methodType(parameterType).wrap().returnType();
+      this.primitiveArgument = parameterType.isPrimitive();
+      this.getter = null;
+      this.setter = lambda ? createSetter(handle, targetType, argumentType) : null;
+      this.handle = lambda ? null : handle.asType(SETTER_TYPE);
+    } else {
+      this.argumentType = null;
+      this.primitiveArgument = false;
+      this.getter = lambda ? createGetter(handle, targetType, method.getReturnType()) : null;
+      this.setter = null;
+      this.handle = lambda ? null : handle.asType(GETTER_TYPE);
+    }
+  }
+
+  /**
+   * @param method a getter or setter of which the accessible flag has been set if needed
+   * @return a direct invoker, or a {@link MethodInvoker} if access to the method is denied
+   */
+  public static MethodInvoker create(Method method) {
+    if (Modifier.isStatic(method.getModifiers()) || method.getParameterTypes().length > 1) {
+      return new MethodInvoker(method);
+    }
+    MethodHandle handle;
+    try {
+      handle = MethodHandles.lookup().unreflect(method);
+    } catch (IllegalAccessException e) {
+      return new MethodInvoker(method);
+    }
+    if (canGenerateLambda(method)) {
+      try {
+        return new DirectMethodInvoker(method, handle, true);
+      } catch (Throwable e) {
+        // Fall back to the method handle.
+      }
+    }
+    try {
+      return new DirectMethodInvoker(method, handle, false);
+    } catch (Throwable e) {
+      return new MethodInvoker(method);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> createGetter(MethodHandle handle, Class<?> targetType, Class<?> returnType) throws Throwable {
+    CallSite site = LambdaMetafactory.metafactory(MethodHandles.lookup(), "apply",
+        MethodType.methodType(Function.class), GETTER_TYPE, handle,
+        MethodType.methodType(returnType, targetType).wrap());
+    return (Function<Object, Object>) site.getTarget().invokeExact();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static BiConsumer<Object, Object> createSetter(MethodHandle handle, Class<?> targetType, Class<?> argumentType) throws Throwable {
+    CallSite site = LambdaMetafactory.metafactory(MethodHandles.lookup(), "accept",
+        MethodType.methodType(BiConsumer.class), SETTER_TYPE, handle,
+        MethodType.methodType(void.class, targetType, argumentType));
+    return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+  }
+
+  /*
+   * The generated class links to the method by name, from the class loader of MyBatis,
+   * so the method and all the types it refers to must be public and visible from there.
+   */
+  private static boolean canGenerateLambda(Method method) {
+    if (!Modifier.isPublic(method.getModifiers()) || !isAccessible(method.getDeclaringClass())) {
+      return false;
+    }
+    for (Class<?> parameterType : method.getParameterTypes()) {
+      if (!isAccessible(parameterType)) {
+        return false;
+      }
+    }
+    return isAccessible(method.getReturnType());
+  }
+
+  private static boolean isAccessible(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    if (type.isPrimitive()) {
+      return true;
+    }
+    for (Class<?> enclosing = type; enclosing != null; enclosing = enclosing.getEnclosingClass()) {
+      if (!Modifier.isPublic(enclosing.getModifiers())) {
+        return false;
+      }
+    }
+    try {
+      return Class.forName(type.getName(), false, DirectMethodInvoker.class.getClassLoader()) == type;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    if (!targetType.isInstance(target)) {
+      return super.invoke(target, args);
+    }
+    if (argumentType == null) {
+      if (args != null && args.length > 0) {
+        return super.invoke(target, args);
+      }
+      try {
+        return getter != null ? getter.apply(target) : (Object) handle.invokeExact(target);
+      } catch (Throwable e) {
+        throw new InvocationTargetException(e);
+      }
+    }
+    if (args == null || args.length != 1 || !isAssignable(args[0])) {
+      return super.invoke(target, args);
+    }
+    try {
+      if (setter != null) {
+        setter.accept(target, args[0]);
+      } else {
+        handle.invokeExact(target, args[0]);
+      }
+      return null;
+    } catch (Throwable e) {
+      throw new InvocationTargetException(e);
+    }
+  }
+
+  private boolean isAssignable(Object value) {
+    return value == null ? !primitiveArgument : argumentType.isInstance(value);
+  }
+}
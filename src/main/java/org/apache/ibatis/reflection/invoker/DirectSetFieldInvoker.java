@@ -0,0 +1,77 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+import org.apache.ibatis.lang.UsesJava7;
+
+/**
+ * Invoker that writes a field through a {@link MethodHandle} bound once, instead of through reflection.
+ * Values that need a widening conversion are set through reflection, as {@link SetFieldInvoker} does.
+ *
+ * @since 3.5.0
+ */
+@UsesJava7
+public class DirectSetFieldInvoker extends SetFieldInvoker {
+
+  private final Class<?> targetType;
+  private final Class<?> valueType;
+  private final boolean primitive;
+  private final MethodHandle setter;
+
+  private DirectSetFieldInvoker(Field field, MethodHandle setter) {
+    super(field);
+    this.targetType = field.getDeclaringClass();
+    this.valueType = MethodType.methodType(field.getType()).wrap().returnType();
+    this.primitive = field.getType().isPrimitive();
+    this.setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+  }
+
+  /**
+   * @param field a field of which the accessible flag has been set if needed
+   * @return a direct invoker, or a {@link SetFieldInvoker} if access to the field is denied
+   */
+  public static SetFieldInvoker create(Field field) {
+    if (Modifier.isStatic(field.getModifiers())) {
+      return new SetFieldInvoker(field);
+    }
+    try {
+      return new DirectSetFieldInvoker(field, MethodHandles.lookup().unreflectSetter(field));
+    } catch (IllegalAccessException e) {
+      return new SetFieldInvoker(field);
+    }
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    Object value = args[0];
+    if (!targetType.isInstance(target) || (value == null ? primitive : !valueType.isInstance(value))) {
+      return super.invoke(target, args);
+    }
+    try {
+      setter.invokeExact(target, value);
+      return null;
+    } catch (Throwable e) {
+      throw new InvocationTargetException(e);
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.apache.ibatis.lang.UsesJava7;
+
+/**
+ * Invoker of the setter (or field) of a primitive property, which can also set the value without boxing it.
+ * <p>
+ * {@link #invoke(Object, Object[])} behaves exactly as the {@link MethodInvoker} or {@link SetFieldInvoker} it wraps,
+ * which may be a direct invoker such as {@link DirectMethodInvoker}.
+ * The typed methods, such as {@link #setInt(Object, int)}, must only be called with the type of the property.
+ * They call the setter through a method handle and fall back to {@link #invoke(Object, Object[])} when
+ * no method handle could be created.
+ * The reflector does not create them: they are only worth their method handles where primitive values are set
+ * for many rows, see {@link #forSetter(Invoker)}.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+@UsesJava7
+public class PrimitiveSetterInvoker implements Invoker {
+
+  private final Invoker invoker;
+  private final MethodHandle setter;
+
+  public PrimitiveSetterInvoker(Method method) {
+    this(method, new MethodInvoker(method));
+  }
+
+  /**
+   * @param method the setter
+   * @param invoker the invoker of the setter, used by {@link #invoke(Object, Object[])}
+   */
+  public PrimitiveSetterInvoker(Method method, MethodInvoker invoker) {
+    this.invoker = invoker;
+    this.setter = adapt(unreflect(method), method.getParameterTypes()[0]);
+  }
+
+  public PrimitiveSetterInvoker(Field field) {
+    this(field, new SetFieldInvoker(field));
+  }
+
+  /**
+   * @param field the field
+   * @param invoker the invoker that sets the field, used by {@link #invoke(Object, Object[])}
+   */
+  public PrimitiveSetterInvoker(Field field, SetFieldInvoker invoker) {
+    this.invoker = invoker;
+    this.setter = Modifier.isStatic(field.getModifiers()) ? null : adapt(unreflectSetter(field), field.getType());
+  }
+
+  /**
+   * @param setter a set invoker of a reflector
+   * @return an invoker that sets the same primitive property without boxing, or {@code null} if the property is not
+   *         primitive or not set by a {@link MethodInvoker} or {@link SetFieldInvoker}
+   */
+  public static PrimitiveSetterInvoker forSetter(Invoker setter) {
+    if (!setter.getType().isPrimitive()) {
+      return null;
+    }
+    if (setter instanceof MethodInvoker) {
+      return new PrimitiveSetterInvoker(((MethodInvoker) setter).getMethod(), (MethodInvoker) setter);
+    } else if (setter instanceof SetFieldInvoker) {
+      return new PrimitiveSetterInvoker(((SetFieldInvoker) setter).getField(), (SetFieldInvoker) setter);
+    }
+    return null;
+  }
+
+  private static MethodHandle unreflect(Method method) {
+    try {
+      return MethodHandles.lookup().unreflect(method);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  private static MethodHandle unreflectSetter(Field field) {
+    try {
+      return MethodHandles.lookup().unreflectSetter(field);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  private static MethodHandle adapt(MethodHandle handle, Class<?> type) {
+    return handle == null ? null : handle.asType(MethodType.methodType(void.class, Object.class, type));
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    return invoker.invoke(target, args);
+  }
+
+  @Override
+  public Class<?> getType() {
+    return invoker.getType();
+  }
+
+  public void setInt(Object target, int value) throws Throwable {
+    if (setter == null) {
+      invoke(target, new Object[] { value });
+    } else {
+      setter.invokeExact(target, value);
+    }
+  }
+
+  public void setLong(Object target, long value) throws Throwable {
+    if (setter == null) {
+      invoke(target, new Object[] { value });
+    } else {
+      setter.invokeExact(target, value);
+    }
+  }
+
+  public void setDouble(Object target, double value) throws Throwable {
+    if (setter == null) {
+      invoke(target, new Object[] { value });
+    } else {
+      setter.invokeExact(target, value);
+    }
+  }
+
+  public void setFloat(Object target, float value) throws Throwable {
+    if (setter == null) {
+      invoke(target, new Object[] { value });
+    } else {
+      setter.invokeExact(target, value);
+    }
+  }
+
+  public void setShort(Object target, short value) throws Throwable {
+    if (setter == null) {
+      invoke(target, new Object[] { value });
+    } else {
+      setter.invokeExact(target, value);
+    }
+  }
+
+  public void setByte(Object target, byte value) throws Throwable {
+    if (setter == null) {
+      invoke(target, new Object[] { value });
+    } else {
+      setter.invokeExact(target, value);
+    }
+  }
+
+  public void setBoolean(Object target, boolean value) throws Throwable {
+    if (setter == null) {
+      invoke(target, new Object[] { value });
+    } else {
+      setter.invokeExact(target, value);
+    }
+  }
+
+  public void setChar(Object target, char value) throws Throwable {
+    if (setter == null) {
+      invoke(target, new Object[] { value });
+    } else {
+      setter.invokeExact(target, value);
+    }
+  }
+}
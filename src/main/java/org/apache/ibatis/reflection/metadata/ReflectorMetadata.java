@@ -0,0 +1,196 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.metadata;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Properties of a class, as found by a {@link org.apache.ibatis.reflection.Reflector}, precomputed at build time.
+ * <p>
+ * Subclasses are generated by the {@link ReflectorMetadataProcessor} for the classes annotated with
+ * {@link org.apache.ibatis.annotations.GenerateReflectorMetadata}. They are named after the binary name of the class
+ * followed by {@value #CLASS_NAME_SUFFIX}, and describe each accessor with the names of its declaring class, member and
+ * types, so that the reflector only looks up the chosen members instead of walking all the methods of the class
+ * hierarchy and resolving conflicts and generic types. They also record how many methods and fields each class and
+ * interface of the hierarchy declared at build time, so that metadata outdated by a class compiled separately is not
+ * trusted.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+public abstract class ReflectorMetadata {
+
+  public static final String CLASS_NAME_SUFFIX = "$$ReflectorMetadata";
+
+  private final List<Accessor> getters = new ArrayList<>();
+  private final List<Accessor> setters = new ArrayList<>();
+  private final List<String> hierarchy = new ArrayList<>();
+
+  /**
+   * @param type a class
+   * @return the metadata generated for the class, or {@code null} if there is none
+   */
+  public static ReflectorMetadata forClass(Class<?> type) {
+    if (type.isPrimitive() || type.isArray() || type.isInterface() || type.getClassLoader() == null) {
+      return null;
+    }
+    try {
+      Class<?> metadataType = Class.forName(type.getName() + CLASS_NAME_SUFFIX, true, type.getClassLoader());
+      if (!ReflectorMetadata.class.isAssignableFrom(metadataType)) {
+        return null;
+      }
+      return (ReflectorMetadata) metadataType.getDeclaredConstructor().newInstance();
+    } catch (ClassNotFoundException e) {
+      return null;
+    } catch (Exception | LinkageError e) {
+      // Ignored. The reflector is then created by reflection.
+      return null;
+    }
+  }
+
+  /**
+   * Records the members declared by a class or interface of the hierarchy, in the order of {@link #matches(Class)}.
+   */
+  protected void declaredMembers(String declaringClass, int methodCount, int fieldCount) {
+    hierarchy.add(fingerprint(declaringClass, methodCount, fieldCount));
+  }
+
+  protected void getterMethod(String property, String declaringClass, String methodName, String type) {
+    getters.add(new Accessor(property, declaringClass, methodName, null, type));
+  }
+
+  protected void getterField(String property, String declaringClass, String fieldName, String type) {
+    getters.add(new Accessor(property, declaringClass, fieldName, null, type, true));
+  }
+
+  protected void setterMethod(String property, String declaringClass, String methodName, String parameterType, String type) {
+    setters.add(new Accessor(property, declaringClass, methodName, parameterType, type));
+  }
+
+  protected void setterField(String property, String declaringClass, String fieldName, String type) {
+    setters.add(new Accessor(property, declaringClass, fieldName, null, type, true));
+  }
+
+  /**
+   * Compares the members declared by the hierarchy of a class with the ones recorded at build time.
+   * Synthetic members and the JDK types are not counted.
+   *
+   * @param type the class the metadata was generated for
+   * @return {@code false} if the class or one of its supertypes changed since the metadata was generated
+   */
+  public boolean matches(Class<?> type) {
+    List<String> actual = new ArrayList<>();
+    for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+      addDeclaredMembers(actual, current);
+    }
+    return !hierarchy.isEmpty() && hierarchy.equals(actual);
+  }
+
+  private static void addDeclaredMembers(List<String> fingerprints, Class<?> type) {
+    String name = type.getName();
+    if (name.startsWith("java.") || name.startsWith("javax.")) {
+      return;
+    }
+    int methodCount = 0;
+    for (Method method : type.getDeclaredMethods()) {
+      if (!method.isSynthetic()) {
+        methodCount++;
+      }
+    }
+    int fieldCount = 0;
+    for (Field field : type.getDeclaredFields()) {
+      if (!field.isSynthetic()) {
+        fieldCount++;
+      }
+    }
+    fingerprints.add(fingerprint(name, methodCount, fieldCount));
+    for (Class<?> anInterface : type.getInterfaces()) {
+      addDeclaredMembers(fingerprints, anInterface);
+    }
+  }
+
+  private static String fingerprint(String declaringClass, int methodCount, int fieldCount) {
+    return declaringClass + ':' + methodCount + ':' + fieldCount;
+  }
+
+  public List<Accessor> getGetters() {
+    return Collections.unmodifiableList(getters);
+  }
+
+  public List<Accessor> getSetters() {
+    return Collections.unmodifiableList(setters);
+  }
+
+  /**
+   * Getter, setter or field of a property. Types are given as {@link Class#getName()} returns them.
+   */
+  public static final class Accessor {
+    private final String property;
+    private final String declaringClass;
+    private final String memberName;
+    private final String parameterType;
+    private final String type;
+    private final boolean field;
+
+    Accessor(String property, String declaringClass, String memberName, String parameterType, String type) {
+      this(property, declaringClass, memberName, parameterType, type, false);
+    }
+
+    Accessor(String property, String declaringClass, String memberName, String parameterType, String type, boolean field) {
+      this.property = property;
+      this.declaringClass = declaringClass;
+      this.memberName = memberName;
+      this.parameterType = parameterType;
+      this.type = type;
+      this.field = field;
+    }
+
+    public String getProperty() {
+      return property;
+    }
+
+    public String getDeclaringClass() {
+      return declaringClass;
+    }
+
+    public String getMemberName() {
+      return memberName;
+    }
+
+    /**
+     * @return the parameter type of a setter method, {@code null} for getters and fields
+     */
+    public String getParameterType() {
+      return parameterType;
+    }
+
+    /**
+     * @return the type of the property, or {@code null} if it depends on type variables and must be resolved at runtime
+     */
+    public String getType() {
+      return type;
+    }
+
+    public boolean isField() {
+      return field;
+    }
+  }
+
+}
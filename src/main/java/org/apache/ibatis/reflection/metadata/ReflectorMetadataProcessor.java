@@ -0,0 +1,491 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.metadata;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import org.apache.ibatis.reflection.property.PropertyNamer;
+
+/**
+ * Annotation processor that generates the {@link ReflectorMetadata} of the classes annotated with
+ * {@link org.apache.ibatis.annotations.GenerateReflectorMetadata} (or declared in an annotated package).
+ * <p>
+ * It is not registered as a service: it must be given to the compiler, e.g. with
+ * {@code -processor org.apache.ibatis.reflection.metadata.ReflectorMetadataProcessor}.
+ * The properties are found with the same rules as the {@link org.apache.ibatis.reflection.Reflector}. Classes that
+ * may not be reflected the same way at runtime are skipped with a note and reflected as usual: interfaces, enums,
+ * inner and local classes, subclasses of JDK classes other than {@code Object}, and classes whose getter or setter
+ * conflicts are ambiguous. Property types that depend on type variables are resolved at runtime.
+ * The metadata records how many members each type of the hierarchy declares: when a supertype compiled separately
+ * changes, the metadata is ignored and the class is reflected as usual until it is generated again.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+@SupportedAnnotationTypes("org.apache.ibatis.annotations.GenerateReflectorMetadata")
+public class ReflectorMetadataProcessor extends AbstractProcessor {
+
+  private static final int MAX_CONFLICTING_METHODS = 5;
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    Set<TypeElement> classes = new LinkedHashSet<>();
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() == ElementKind.PACKAGE) {
+          for (Element rootElement : roundEnv.getRootElements()) {
+            if (rootElement instanceof TypeElement && element.equals(processingEnv.getElementUtils().getPackageOf(rootElement))) {
+              addClasses(classes, (TypeElement) rootElement);
+            }
+          }
+        } else if (element instanceof TypeElement) {
+          addClasses(classes, (TypeElement) element);
+        }
+      }
+    }
+    for (TypeElement type : classes) {
+      try {
+        write(type, new Properties(type));
+      } catch (UnsupportedClassException e) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+            "No reflector metadata generated for " + type.getQualifiedName() + ": " + e.getMessage(), type);
+      } catch (IOException e) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+            "Could not write the reflector metadata of " + type.getQualifiedName() + ": " + e, type);
+      }
+    }
+    return false;
+  }
+
+  private void addClasses(Set<TypeElement> classes, TypeElement type) {
+    classes.add(type);
+    for (TypeElement memberType : ElementFilter.typesIn(type.getEnclosedElements())) {
+      if (memberType.getModifiers().contains(Modifier.STATIC)) {
+        addClasses(classes, memberType);
+      }
+    }
+  }
+
+  private void write(TypeElement type, Properties properties) throws IOException {
+    String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    String binaryName = binaryName(type);
+    String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+        + ReflectorMetadata.CLASS_NAME_SUFFIX;
+    try (Writer writer = processingEnv.getFiler().createSourceFile(binaryName + ReflectorMetadata.CLASS_NAME_SUFFIX, type).openWriter()) {
+      if (!packageName.isEmpty()) {
+        writer.write("package " + packageName + ";\n\n");
+      }
+      writer.write("public final class " + simpleName + " extends " + ReflectorMetadata.class.getName() + " {\n\n");
+      writer.write("  public " + simpleName + "() {\n");
+      for (String line : properties.lines) {
+        writer.write("    " + line + ";\n");
+      }
+      writer.write("  }\n\n}\n");
+    }
+  }
+
+  private String binaryName(TypeElement type) {
+    return processingEnv.getElementUtils().getBinaryName(type).toString();
+  }
+
+  /*
+   * Properties of a class, found as Reflector does.
+   */
+  private class Properties {
+    private final Map<String, TypeMirror> getTypes = new TreeMap<>();
+    private final Set<String> setProperties = new HashSet<>();
+    private final List<String> lines = new ArrayList<>();
+    private final List<String> setterLines = new ArrayList<>();
+
+    Properties(TypeElement type) throws UnsupportedClassException {
+      List<TypeElement> hierarchy = hierarchy(type);
+      for (TypeElement current : hierarchy) {
+        addDeclaredMembers(current);
+      }
+      UniqueMethods methods = new UniqueMethods();
+      for (TypeElement current : hierarchy) {
+        methods.addUniqueMethods(ElementFilter.methodsIn(current.getEnclosedElements()));
+        for (TypeMirror anInterface : current.getInterfaces()) {
+          methods.addUniqueMethods(interfaceMethods(asTypeElement(anInterface), true));
+        }
+      }
+      addGetMethods(methods.values());
+      addSetMethods(methods.values());
+      for (TypeElement current : hierarchy) {
+        addFields(current);
+      }
+      lines.addAll(setterLines);
+    }
+
+    private List<TypeElement> hierarchy(TypeElement type) throws UnsupportedClassException {
+      if (type.getKind() != ElementKind.CLASS) {
+        throw new UnsupportedClassException("not a class");
+      }
+      List<TypeElement> hierarchy = new ArrayList<>();
+      TypeElement current = type;
+      while (!current.getQualifiedName().contentEquals("java.lang.Object")) {
+        String name = current.getQualifiedName().toString();
+        if (name.startsWith("java.") || name.startsWith("javax.")) {
+          throw new UnsupportedClassException("extends " + name);
+        }
+        NestingKind nestingKind = current.getNestingKind();
+        if (nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS
+            || (nestingKind == NestingKind.MEMBER && !current.getModifiers().contains(Modifier.STATIC))) {
+          throw new UnsupportedClassException(name + " is an inner class");
+        }
+        hierarchy.add(current);
+        TypeMirror superclass = current.getSuperclass();
+        if (superclass.getKind() == TypeKind.NONE) {
+          break;
+        }
+        current = asTypeElement(superclass);
+      }
+      return hierarchy;
+    }
+
+    /*
+     * Records the members declared by the type and its interfaces, as ReflectorMetadata#matches counts them.
+     */
+    private void addDeclaredMembers(TypeElement type) throws UnsupportedClassException {
+      String name = type.getQualifiedName().toString();
+      if (name.startsWith("java.") || name.startsWith("javax.")) {
+        return;
+      }
+      List<? extends Element> members = type.getEnclosedElements();
+      lines.add("declaredMembers(\"" + binaryName(type) + "\", " + ElementFilter.methodsIn(members).size() + ", "
+          + ElementFilter.fieldsIn(members).size() + ")");
+      for (TypeMirror anInterface : type.getInterfaces()) {
+        addDeclaredMembers(asTypeElement(anInterface));
+      }
+    }
+
+    private List<ExecutableElement> interfaceMethods(TypeElement anInterface, boolean withStaticMethods) throws UnsupportedClassException {
+      List<ExecutableElement> methods = new ArrayList<>();
+      for (ExecutableElement method : ElementFilter.methodsIn(anInterface.getEnclosedElements())) {
+        if (method.getModifiers().contains(Modifier.PUBLIC)
+            && (withStaticMethods || !method.getModifiers().contains(Modifier.STATIC))) {
+          methods.add(method);
+        }
+      }
+      for (TypeMirror superInterface : anInterface.getInterfaces()) {
+        methods.addAll(interfaceMethods(asTypeElement(superInterface), false));
+      }
+      return methods;
+    }
+
+    private void addGetMethods(List<ExecutableElement> methods) throws UnsupportedClassException {
+      Map<String, List<ExecutableElement>> conflictingGetters = new TreeMap<>();
+      for (ExecutableElement method : methods) {
+        String name = method.getSimpleName().toString();
+        if (method.getParameters().isEmpty()
+            && ((name.startsWith("get") && name.length() > 3) || (name.startsWith("is") && name.length() > 2))) {
+          conflictingGetters.computeIfAbsent(PropertyNamer.methodToProperty(name), k -> new ArrayList<>()).add(method);
+        }
+      }
+      for (Map.Entry<String, List<ExecutableElement>> entry : conflictingGetters.entrySet()) {
+        ExecutableElement winner = resolveConflict(entry.getKey(), entry.getValue(), true);
+        if (isValidPropertyName(entry.getKey())) {
+          getTypes.put(entry.getKey(), winner.getReturnType());
+          lines.add("getterMethod(\"" + entry.getKey() + "\", \"" + binaryName((TypeElement) winner.getEnclosingElement())
+              + "\", \"" + winner.getSimpleName() + "\", " + typeLiteral(winner.getReturnType()) + ")");
+        }
+      }
+    }
+
+    private void addSetMethods(List<ExecutableElement> methods) throws UnsupportedClassException {
+      Map<String, List<ExecutableElement>> conflictingSetters = new TreeMap<>();
+      for (ExecutableElement method : methods) {
+        String name = method.getSimpleName().toString();
+        if (name.startsWith("set") && name.length() > 3 && method.getParameters().size() == 1) {
+          conflictingSetters.computeIfAbsent(PropertyNamer.methodToProperty(name), k -> new ArrayList<>()).add(method);
+        }
+      }
+      for (Map.Entry<String, List<ExecutableElement>> entry : conflictingSetters.entrySet()) {
+        ExecutableElement match = resolveConflict(entry.getKey(), entry.getValue(), false);
+        if (isValidPropertyName(entry.getKey())) {
+          TypeMirror parameterType = match.getParameters().get(0).asType();
+          setProperties.add(entry.getKey());
+          setterLines.add("setterMethod(\"" + entry.getKey() + "\", \"" + binaryName((TypeElement) match.getEnclosingElement())
+              + "\", \"" + match.getSimpleName() + "\", \"" + typeName(erasure(parameterType)) + "\", "
+              + typeLiteral(parameterType) + ")");
+        }
+      }
+    }
+
+    private void addFields(TypeElement type) throws UnsupportedClassException {
+      for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+        String name = field.getSimpleName().toString();
+        Set<Modifier> modifiers = field.getModifiers();
+        if (!setProperties.contains(name) && !(modifiers.contains(Modifier.FINAL) && modifiers.contains(Modifier.STATIC))
+            && isValidPropertyName(name)) {
+          setProperties.add(name);
+          setterLines.add("setterField(\"" + name + "\", \"" + binaryName(type) + "\", \"" + name + "\", "
+              + typeLiteral(field.asType()) + ")");
+        }
+        if (!getTypes.containsKey(name) && isValidPropertyName(name)) {
+          getTypes.put(name, field.asType());
+          lines.add("getterField(\"" + name + "\", \"" + binaryName(type) + "\", \"" + name + "\", "
+              + typeLiteral(field.asType()) + ")");
+        }
+      }
+    }
+
+    /*
+     * Resolves the conflict the way Reflector does, for every order in which the methods could be found:
+     * the class is skipped if Reflector could fail or pick another method.
+     */
+    private ExecutableElement resolveConflict(String property, List<ExecutableElement> methods, boolean getters) throws UnsupportedClassException {
+      if (methods.size() == 1) {
+        return methods.get(0);
+      }
+      if (methods.size() > MAX_CONFLICTING_METHODS) {
+        throw new UnsupportedClassException("too many methods for property " + property);
+      }
+      TypeMirror getterType = null;
+      if (!getters && getTypes.containsKey(property)) {
+        getterType = getTypes.get(property);
+        if (!isResolved(getterType)) {
+          throw new UnsupportedClassException("the type of property " + property + " depends on type variables");
+        }
+        getterType = erasure(getterType);
+      }
+      ExecutableElement result = null;
+      for (List<ExecutableElement> order : permutations(methods)) {
+        ExecutableElement winner = getters ? resolveGetterConflict(order) : resolveSetterConflict(order, getterType);
+        if (winner == null || (result != null && result != winner)) {
+          throw new UnsupportedClassException("ambiguous methods for property " + property);
+        }
+        result = winner;
+      }
+      return result;
+    }
+
+    private ExecutableElement resolveGetterConflict(List<ExecutableElement> getters) {
+      ExecutableElement winner = null;
+      for (ExecutableElement candidate : getters) {
+        if (winner == null) {
+          winner = candidate;
+          continue;
+        }
+        TypeMirror winnerType = erasure(winner.getReturnType());
+        TypeMirror candidateType = erasure(candidate.getReturnType());
+        if (isSameType(candidateType, winnerType)) {
+          if (candidateType.getKind() != TypeKind.BOOLEAN) {
+            return null;
+          } else if (candidate.getSimpleName().toString().startsWith("is")) {
+            winner = candidate;
+          }
+        } else if (isAssignable(candidateType, winnerType)) {
+          // OK getter type is descendant
+        } else if (isAssignable(winnerType, candidateType)) {
+          winner = candidate;
+        } else {
+          return null;
+        }
+      }
+      return winner;
+    }
+
+    private ExecutableElement resolveSetterConflict(List<ExecutableElement> setters, TypeMirror getterType) {
+      ExecutableElement match = null;
+      boolean failed = false;
+      for (ExecutableElement setter : setters) {
+        TypeMirror paramType = erasure(setter.getParameters().get(0).asType());
+        if (getterType != null && isSameType(paramType, getterType)) {
+          return setter;
+        }
+        if (!failed) {
+          if (match == null) {
+            match = setter;
+          } else {
+            TypeMirror matchType = erasure(match.getParameters().get(0).asType());
+            if (isAssignable(matchType, paramType)) {
+              match = setter;
+            } else if (!isAssignable(paramType, matchType)) {
+              match = null;
+              failed = true;
+            }
+          }
+        }
+      }
+      return match;
+    }
+
+    private String typeLiteral(TypeMirror type) throws UnsupportedClassException {
+      return isResolved(type) ? "\"" + typeName(erasure(type)) + "\"" : "null";
+    }
+  }
+
+  private static <T> List<List<T>> permutations(List<T> list) {
+    if (list.size() <= 1) {
+      return Collections.singletonList(list);
+    }
+    List<List<T>> permutations = new ArrayList<>();
+    for (int i = 0; i < list.size(); i++) {
+      List<T> rest = new ArrayList<>(list);
+      T first = rest.remove(i);
+      for (List<T> permutation : permutations(rest)) {
+        List<T> order = new ArrayList<>();
+        order.add(first);
+        order.addAll(permutation);
+        permutations.add(order);
+      }
+    }
+    return permutations;
+  }
+
+  /*
+   * Methods unique by signature, as Reflector#getClassMethods collects them.
+   */
+  private class UniqueMethods {
+    private final Map<String, ExecutableElement> uniqueMethods = new LinkedHashMap<>();
+
+    void addUniqueMethods(List<ExecutableElement> methods) throws UnsupportedClassException {
+      for (ExecutableElement method : methods) {
+        StringBuilder signature = new StringBuilder(typeName(erasure(method.getReturnType()))).append('#')
+            .append(method.getSimpleName());
+        for (int i = 0; i < method.getParameters().size(); i++) {
+          signature.append(i == 0 ? ':' : ',').append(typeName(erasure(method.getParameters().get(i).asType())));
+        }
+        uniqueMethods.putIfAbsent(signature.toString(), method);
+      }
+    }
+
+    List<ExecutableElement> values() {
+      return new ArrayList<>(uniqueMethods.values());
+    }
+  }
+
+  private TypeElement asTypeElement(TypeMirror type) throws UnsupportedClassException {
+    if (type.getKind() != TypeKind.DECLARED) {
+      throw new UnsupportedClassException("unresolved type " + type);
+    }
+    return (TypeElement) processingEnv.getTypeUtils().asElement(type);
+  }
+
+  private TypeMirror erasure(TypeMirror type) {
+    return processingEnv.getTypeUtils().erasure(type);
+  }
+
+  /*
+   * Whether TypeParameterResolver would not resolve the type differently from its erasure.
+   */
+  private static boolean isResolved(TypeMirror type) {
+    if (type.getKind() == TypeKind.TYPEVAR) {
+      return false;
+    } else if (type.getKind() == TypeKind.ARRAY) {
+      return isResolved(((ArrayType) type).getComponentType());
+    }
+    return true;
+  }
+
+  private boolean isSameType(TypeMirror type1, TypeMirror type2) {
+    return processingEnv.getTypeUtils().isSameType(type1, type2);
+  }
+
+  /*
+   * Same as Class#isAssignableFrom for erased types.
+   */
+  private boolean isAssignable(TypeMirror to, TypeMirror from) {
+    if (to.getKind().isPrimitive() || from.getKind().isPrimitive() || to.getKind() == TypeKind.VOID || from.getKind() == TypeKind.VOID) {
+      return to.getKind() == from.getKind();
+    }
+    return processingEnv.getTypeUtils().isSubtype(from, to);
+  }
+
+  private static boolean isValidPropertyName(String name) {
+    return !(name.startsWith("$") || "serialVersionUID".equals(name) || "class".equals(name));
+  }
+
+  /*
+   * The name of an erased type as returned by Class#getName().
+   */
+  private String typeName(TypeMirror type) throws UnsupportedClassException {
+    if (type.getKind().isPrimitive() || type.getKind() == TypeKind.VOID) {
+      return type.getKind().name().toLowerCase(Locale.ENGLISH);
+    } else if (type.getKind() == TypeKind.ARRAY) {
+      return "[" + descriptor(((ArrayType) type).getComponentType());
+    }
+    return binaryName(asTypeElement(type));
+  }
+
+  private String descriptor(TypeMirror type) throws UnsupportedClassException {
+    switch (type.getKind()) {
+      case BOOLEAN:
+        return "Z";
+      case BYTE:
+        return "B";
+      case CHAR:
+        return "C";
+      case SHORT:
+        return "S";
+      case INT:
+        return "I";
+      case LONG:
+        return "J";
+      case FLOAT:
+        return "F";
+      case DOUBLE:
+        return "D";
+      case ARRAY:
+        return "[" + descriptor(((ArrayType) type).getComponentType());
+      default:
+        return "L" + binaryName(asTypeElement(type)) + ";";
+    }
+  }
+
+  private static class UnsupportedClassException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    UnsupportedClassException(String message) {
+      super(message);
+    }
+  }
+
+}
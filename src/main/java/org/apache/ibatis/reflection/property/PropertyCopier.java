@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2015 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -16,30 +16,59 @@
 package org.apache.ibatis.reflection.property;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Clinton Begin
  */
 public final class PropertyCopier {
 
+  /**
+   * Instance fields of a class and its superclasses, already made accessible.
+   * A class value does not keep the classes of other class loaders from being unloaded.
+   */
+  private static final ClassValue<Field[]> FIELDS = new ClassValue<Field[]>() {
+    @Override
+    protected Field[] computeValue(Class<?> type) {
+      return resolveFields(type);
+    }
+  };
+
   private PropertyCopier() {
     // Prevent Instantiation of Static Class
   }
 
   public static void copyBeanProperties(Class<?> type, Object sourceBean, Object destinationBean) {
+    for (Field field : FIELDS.get(type)) {
+      try {
+        field.set(destinationBean, field.get(sourceBean));
+      } catch (Exception e) {
+        // Nothing useful to do, will only fail on final fields, which will be ignored.
+      }
+    }
+  }
+
+  private static Field[] resolveFields(Class<?> type) {
+    List<Field> fields = new ArrayList<>();
     Class<?> parent = type;
     while (parent != null) {
-      final Field[] fields = parent.getDeclaredFields();
-      for(Field field : fields) {
+      for (Field field : parent.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers())) {
+          // copying a static field onto itself has no effect
+          continue;
+        }
         try {
           field.setAccessible(true);
-          field.set(destinationBean, field.get(sourceBean));
+          fields.add(field);
         } catch (Exception e) {
-          // Nothing useful to do, will only fail on final fields, which will be ignored.
+          // Ignored like the fields that cannot be set.
         }
       }
       parent = parent.getSuperclass();
     }
+    return fields.toArray(new Field[fields.size()]);
   }
 
 }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.List;
 import org.apache.ibatis.reflection.ExceptionUtil;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.PropertyPath;
 import org.apache.ibatis.reflection.ReflectionException;
 import org.apache.ibatis.reflection.SystemMetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
@@ -31,7 +32,8 @@ import org.apache.ibatis.reflection.property.PropertyTokenizer;
  */
 public class BeanWrapper extends BaseWrapper {
 
-  private final Object object;
+  // not final only for reset(Object)
+  private Object object;
   private final MetaClass metaClass;
 
   public BeanWrapper(MetaObject metaObject, Object object) {
@@ -60,6 +62,32 @@ public class BeanWrapper extends BaseWrapper {
     }
   }
 
+  /**
+   * Makes this wrapper wrap another bean of the same type.
+   * <p>
+   * <b>Internal API</b>, only meant for {@link MetaObject#reset(Object)}.
+   * </p>
+   *
+   * @param object a bean of the same type as the current one
+   * @since 3.5.0
+   * @deprecated internal API of the result mapping, not meant to be called by applications
+   */
+  @Deprecated
+  public void reset(Object object) {
+    if (object.getClass() != this.object.getClass()) {
+      throw new ReflectionException("Cannot reset the wrapper of " + this.object.getClass() + " with an instance of " + object.getClass() + ".");
+    }
+    this.object = object;
+  }
+
+  /**
+   * @since 3.5.0
+   * @see MetaClass#getPropertyPath(String)
+   */
+  public PropertyPath getPropertyPath(String expression) {
+    return metaClass.getPropertyPath(expression);
+  }
+
   @Override
   public String findProperty(String name, boolean useCamelCaseMapping) {
     return metaClass.findProperty(name, useCamelCaseMapping);
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2015 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -85,8 +85,9 @@ public class DynamicContext {
     @Override
     public Object get(Object key) {
       String strKey = (String) key;
-      if (super.containsKey(strKey)) {
-        return super.get(strKey);
+      Object value = super.get(strKey);
+      if (value != null || super.containsKey(strKey)) {
+        return value;
       }
 
       if (parameterMetaObject != null) {
@@ -106,7 +107,7 @@ public class DynamicContext {
       Map map = (Map) target;
 
       Object result = map.get(name);
-      if (map.containsKey(name) || result != null) {
+      if (result != null || map.containsKey(name)) {
         return result;
       }
 
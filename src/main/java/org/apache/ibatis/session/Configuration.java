@@ -19,11 +19,15 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
 
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.builder.CacheRefResolver;
@@ -49,8 +53,10 @@ import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.CompiledRowMapper;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.resultset.UnMappedColumnAutoMapping;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.io.VFS;
@@ -118,6 +124,15 @@ public class Configuration {
   protected Set<String> lazyLoadTriggerMethods = new HashSet<>(Arrays.asList("equals", "clone", "hashCode", "toString"));
   protected Integer defaultStatementTimeout;
   protected Integer defaultFetchSize;
+  protected Integer defaultCursorBatchSize;
+  protected boolean adaptiveFetchSizeEnabled;
+  protected int minAdaptiveFetchSize = 10;
+  protected int maxAdaptiveFetchSize = 1000;
+  protected int hedgedQueryPercentile = 95;
+  protected DataSource hedgedQueryDataSource;
+  protected boolean compiledRowMappingEnabled;
+  protected boolean compactMapResultsEnabled;
+  protected boolean columnIndexReadsEnabled;
   protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
   protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
   protected AutoMappingUnknownColumnBehavior autoMappingUnknownColumnBehavior = AutoMappingUnknownColumnBehavior.NONE;
@@ -166,6 +181,20 @@ public class Configuration {
    */
   protected final Map<String, String> cacheRefMap = new HashMap<>();
 
+  /*
+   * Row mappers compiled by the result set handlers. The key is the result map id
+   * followed by the signature of the columns of the result set.
+   */
+  protected final Map<String, CompiledRowMapper> compiledRowMappers = new ConcurrentHashMap<>();
+
+  /*
+   * Automatic mappings resolved by the result set handlers. The key is the result map id and the column prefix
+   * followed by the signature of the columns of the result set. The number of entries is bounded since
+   * dynamic SQL may produce many different sets of columns.
+   */
+  protected final Map<String, List<UnMappedColumnAutoMapping>> autoMappings = new ConcurrentHashMap<>();
+  protected int autoMappingsCacheSize = 1024;
+
   public Configuration(Environment environment) {
     this();
     this.environment = environment;
@@ -426,6 +455,139 @@ public class Configuration {
     this.defaultFetchSize = defaultFetchSize;
   }
 
+  /**
+   * @since 3.5.0
+   */
+  public Integer getDefaultCursorBatchSize() {
+    return defaultCursorBatchSize;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public void setDefaultCursorBatchSize(Integer defaultCursorBatchSize) {
+    this.defaultCursorBatchSize = defaultCursorBatchSize;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public boolean isAdaptiveFetchSizeEnabled() {
+    return adaptiveFetchSizeEnabled;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public void setAdaptiveFetchSizeEnabled(boolean adaptiveFetchSizeEnabled) {
+    this.adaptiveFetchSizeEnabled = adaptiveFetchSizeEnabled;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public int getMinAdaptiveFetchSize() {
+    return minAdaptiveFetchSize;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public void setMinAdaptiveFetchSize(int minAdaptiveFetchSize) {
+    this.minAdaptiveFetchSize = minAdaptiveFetchSize;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public int getMaxAdaptiveFetchSize() {
+    return maxAdaptiveFetchSize;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public void setMaxAdaptiveFetchSize(int maxAdaptiveFetchSize) {
+    this.maxAdaptiveFetchSize = maxAdaptiveFetchSize;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public int getHedgedQueryPercentile() {
+    return hedgedQueryPercentile;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public void setHedgedQueryPercentile(int hedgedQueryPercentile) {
+    this.hedgedQueryPercentile = hedgedQueryPercentile;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public DataSource getHedgedQueryDataSource() {
+    return hedgedQueryDataSource;
+  }
+
+  /**
+   * Sets the DataSource providing the connections of the second executions of hedged selects.
+   * The DataSource of the environment is used when not set.
+   *
+   * @since 3.5.0
+   */
+  public void setHedgedQueryDataSource(DataSource hedgedQueryDataSource) {
+    this.hedgedQueryDataSource = hedgedQueryDataSource;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public boolean isCompiledRowMappingEnabled() {
+    return compiledRowMappingEnabled;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public void setCompiledRowMappingEnabled(boolean compiledRowMappingEnabled) {
+    this.compiledRowMappingEnabled = compiledRowMappingEnabled;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public boolean isCompactMapResultsEnabled() {
+    return compactMapResultsEnabled;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public void setCompactMapResultsEnabled(boolean compactMapResultsEnabled) {
+    this.compactMapResultsEnabled = compactMapResultsEnabled;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public boolean isColumnIndexReadsEnabled() {
+    return columnIndexReadsEnabled;
+  }
+
+  /**
+   * Reads the columns of result mappings, automatic mappings, discriminators and row keys with
+   * {@link org.apache.ibatis.type.TypeHandler#getResult(java.sql.ResultSet, int)} instead of the column label.
+   * The type handlers must then return the same value from both getters.
+   *
+   * @since 3.5.0
+   */
+  public void setColumnIndexReadsEnabled(boolean columnIndexReadsEnabled) {
+    this.columnIndexReadsEnabled = columnIndexReadsEnabled;
+  }
+
   public boolean isUseColumnLabel() {
     return useColumnLabel;
   }
@@ -622,6 +784,60 @@ public class Configuration {
     return caches.containsKey(id);
   }
 
+  /**
+   * @since 3.5.0
+   */
+  public void addCompiledRowMapper(String key, CompiledRowMapper rowMapper) {
+    putBounded(compiledRowMappers, key, rowMapper);
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public CompiledRowMapper getCompiledRowMapper(String key) {
+    return compiledRowMappers.get(key);
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public void addAutoMappings(String key, List<UnMappedColumnAutoMapping> mappings) {
+    putBounded(autoMappings, key, mappings);
+  }
+
+  private <V> void putBounded(Map<String, V> cache, String key, V value) {
+    if (cache.size() >= autoMappingsCacheSize) {
+      // evict any entry, the most used ones are quickly added again
+      Iterator<String> keys = cache.keySet().iterator();
+      if (keys.hasNext()) {
+        keys.next();
+        keys.remove();
+      }
+    }
+    cache.put(key, value);
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public List<UnMappedColumnAutoMapping> getAutoMappings(String key) {
+    return autoMappings.get(key);
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public int getAutoMappingsCacheSize() {
+    return autoMappingsCacheSize;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public void setAutoMappingsCacheSize(int autoMappingsCacheSize) {
+    this.autoMappingsCacheSize = autoMappingsCacheSize;
+  }
+
   public void addResultMap(ResultMap rm) {
     resultMaps.put(rm.getId(), rm);
     checkLocallyForDiscriminatedNestedResultMaps(rm);
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2016 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package org.apache.ibatis.transaction;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import org.apache.ibatis.mapping.MappedStatement;
+
 /**
  * Wraps a database connection.
  * Handles the connection lifecycle that comprises: its creation, preparation, commit/rollback and close. 
@@ -33,6 +35,18 @@ public interface Transaction {
    */
   Connection getConnection() throws SQLException;
 
+  /**
+   * Retrieve the database connection to execute a statement on.
+   * Implementations may route the statement to another database; by default, it is executed on the inner connection.
+   * @param ms the statement that is about to be executed
+   * @return DataBase connection
+   * @throws SQLException
+   * @since 3.5.0
+   */
+  default Connection getConnection(MappedStatement ms) throws SQLException {
+    return getConnection();
+  }
+
   /**
    * Commit inner database connection.
    * @throws SQLException
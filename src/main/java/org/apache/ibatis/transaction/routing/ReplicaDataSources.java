@@ -0,0 +1,105 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replicas shared by the transactions of a {@link RoutingTransactionFactory}.
+ * Each transaction picks one replica, and keeps it until it is closed.
+ */
+public class ReplicaDataSources {
+
+  public enum Strategy {
+    /**
+     * Replicas are picked in turn.
+     */
+    ROUND_ROBIN,
+    /**
+     * The replica with the fewest connections currently held by transactions is picked.
+     */
+    LEAST_LOADED
+  }
+
+  private final List<DataSource> dataSources;
+  private final AtomicInteger[] activeConnections;
+  private final AtomicInteger counter = new AtomicInteger();
+  private final Strategy strategy;
+
+  public ReplicaDataSources(List<DataSource> dataSources) {
+    this(dataSources, Strategy.ROUND_ROBIN);
+  }
+
+  public ReplicaDataSources(List<DataSource> dataSources, Strategy strategy) {
+    if (dataSources == null || dataSources.isEmpty()) {
+      throw new IllegalArgumentException("At least one replica DataSource is required");
+    }
+    this.dataSources = new ArrayList<>(dataSources);
+    this.activeConnections = new AtomicInteger[dataSources.size()];
+    for (int i = 0; i < activeConnections.length; i++) {
+      activeConnections[i] = new AtomicInteger();
+    }
+    this.strategy = strategy;
+  }
+
+  /**
+   * Picks a replica and counts it as used until {@link #release(int)} is called.
+   * @return the index of the replica
+   */
+  public int acquire() {
+    int index;
+    if (strategy == Strategy.LEAST_LOADED) {
+      // start from a rotating position so that replicas with the same load are picked in turn
+      int start = Math.floorMod(counter.getAndIncrement(), dataSources.size());
+      index = start;
+      for (int i = 1; i < dataSources.size(); i++) {
+        int candidate = (start + i) % dataSources.size();
+        if (activeConnections[candidate].get() < activeConnections[index].get()) {
+          index = candidate;
+        }
+      }
+    } else {
+      index = Math.floorMod(counter.getAndIncrement(), dataSources.size());
+    }
+    activeConnections[index].incrementAndGet();
+    return index;
+  }
+
+  public void release(int index) {
+    activeConnections[index].decrementAndGet();
+  }
+
+  public DataSource getDataSource(int index) {
+    return dataSources.get(index);
+  }
+
+  public int getActiveConnections(int index) {
+    return activeConnections[index].get();
+  }
+
+  public int size() {
+    return dataSources.size();
+  }
+
+  public Strategy getStrategy() {
+    return strategy;
+  }
+
+}
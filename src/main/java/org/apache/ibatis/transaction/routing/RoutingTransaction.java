@@ -0,0 +1,146 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.routing;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+
+/**
+ * {@link Transaction} that executes selects on a read replica and everything else on the primary database.
+ * Once a statement other than a select has been executed, selects are executed on the primary too
+ * until the transaction is committed or rolled back, so that they see the changes made by the transaction.
+ * In autocommit mode each statement is committed on its own, so selects go back to the replica right after a write.
+ * Select key statements and the statements (or namespaces) listed as primary statements are always executed on the primary.
+ * The replica connection is opened in autocommit mode on first use and is kept until the transaction is closed.
+ *
+ * @see RoutingTransactionFactory
+ */
+public class RoutingTransaction implements Transaction {
+
+  private static final Log log = LogFactory.getLog(RoutingTransaction.class);
+
+  private final Transaction primary;
+  private final ReplicaDataSources replicas;
+  private final Set<String> primaryStatements;
+  private final boolean autoCommit;
+
+  private Transaction replica;
+  private int replicaIndex = -1;
+  private boolean writing;
+
+  public RoutingTransaction(Transaction primary, ReplicaDataSources replicas, Set<String> primaryStatements) {
+    this(primary, replicas, primaryStatements, false);
+  }
+
+  public RoutingTransaction(Transaction primary, ReplicaDataSources replicas, Set<String> primaryStatements,
+      boolean autoCommit) {
+    this.primary = primary;
+    this.replicas = replicas;
+    this.primaryStatements = primaryStatements;
+    this.autoCommit = autoCommit;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(MappedStatement ms) throws SQLException {
+    if (ms.getSqlCommandType() != SqlCommandType.SELECT) {
+      // there is nothing pending once an autocommitted statement has been executed
+      writing = !autoCommit;
+    } else if (!writing && !isPrimaryStatement(ms.getId())) {
+      return getReplicaConnection();
+    }
+    return primary.getConnection();
+  }
+
+  protected boolean isPrimaryStatement(String statementId) {
+    if (statementId.endsWith(SelectKeyGenerator.SELECT_KEY_SUFFIX) || primaryStatements.contains(statementId)) {
+      return true;
+    }
+    int lastPeriod = statementId.lastIndexOf('.');
+    return lastPeriod > 0 && primaryStatements.contains(statementId.substring(0, lastPeriod));
+  }
+
+  protected Connection getReplicaConnection() throws SQLException {
+    if (replica == null) {
+      replicaIndex = replicas.acquire();
+      if (log.isDebugEnabled()) {
+        log.debug("Routing selects to replica #" + replicaIndex);
+      }
+      replica = new JdbcTransaction(replicas.getDataSource(replicaIndex), null, true);
+    }
+    return replica.getConnection();
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    primary.commit();
+    writing = false;
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    primary.rollback();
+    writing = false;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    try {
+      primary.close();
+    } finally {
+      if (replica != null) {
+        try {
+          replica.close();
+        } finally {
+          replicas.release(replicaIndex);
+          replica = null;
+          replicaIndex = -1;
+        }
+      }
+    }
+  }
+
+  @Override
+  public Integer getTimeout() throws SQLException {
+    return primary.getTimeout();
+  }
+
+  public boolean isAutoCommit() {
+    return autoCommit;
+  }
+
+  public boolean isWriting() {
+    return writing;
+  }
+
+  public int getReplicaIndex() {
+    return replicaIndex;
+  }
+
+}
@@ -0,0 +1,147 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.routing;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.TransactionException;
+import org.apache.ibatis.transaction.TransactionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+
+/**
+ * Creates {@link RoutingTransaction} instances, which execute selects on the given replicas and everything else
+ * on the transactions created by the primary factory over the environment's DataSource.
+ * <p>
+ * Statements that must read from the primary (e.g. {@code select ... for update}) can be listed by id or by namespace,
+ * either with {@link #addPrimaryStatement(String)} or with the comma separated {@code primaryStatements} property.
+ * Transactions created out of an existing connection are not routed.
+ * </p>
+ * <p>
+ * When created with the no-arg constructor (e.g. from {@code <transactionManager type="...">}), the primary
+ * transactions are {@link JdbcTransactionFactory JDBC} ones and each replica is a pooled DataSource configured
+ * with the properties prefixed by {@code replica.<name>.} (e.g. {@code replica.r1.url}).
+ * Replicas are ordered by name, and the {@code replicaStrategy} property picks the {@link ReplicaDataSources.Strategy}.
+ * </p>
+ *
+ * @see RoutingTransaction
+ */
+public class RoutingTransactionFactory implements TransactionFactory {
+
+  private static final String REPLICA_PROPERTY_PREFIX = "replica.";
+
+  private TransactionFactory primaryTransactionFactory;
+  private ReplicaDataSources replicas;
+  private final Set<String> primaryStatements = Collections.synchronizedSet(new HashSet<>());
+
+  public RoutingTransactionFactory() {
+    this.primaryTransactionFactory = new JdbcTransactionFactory();
+  }
+
+  public RoutingTransactionFactory(TransactionFactory primaryTransactionFactory, ReplicaDataSources replicas) {
+    this.primaryTransactionFactory = primaryTransactionFactory;
+    this.replicas = replicas;
+  }
+
+  @Override
+  public void setProperties(Properties props) {
+    primaryTransactionFactory.setProperties(props);
+    if (props != null) {
+      String value = props.getProperty("primaryStatements");
+      if (value != null) {
+        for (String statement : value.split(",")) {
+          if (!statement.trim().isEmpty()) {
+            addPrimaryStatement(statement.trim());
+          }
+        }
+      }
+      if (replicas == null) {
+        replicas = createReplicas(props);
+      }
+    }
+  }
+
+  private ReplicaDataSources createReplicas(Properties props) {
+    Map<String, Properties> replicaProperties = new TreeMap<>();
+    for (String propertyName : props.stringPropertyNames()) {
+      if (propertyName.startsWith(REPLICA_PROPERTY_PREFIX)) {
+        int nameEnd = propertyName.indexOf('.', REPLICA_PROPERTY_PREFIX.length());
+        if (nameEnd < 0) {
+          throw new TransactionException("Invalid replica property '" + propertyName
+              + "'. Replica properties must be named '" + REPLICA_PROPERTY_PREFIX + "<name>.<property>'.");
+        }
+        String replicaName = propertyName.substring(REPLICA_PROPERTY_PREFIX.length(), nameEnd);
+        replicaProperties.computeIfAbsent(replicaName, k -> new Properties())
+            .setProperty(propertyName.substring(nameEnd + 1), props.getProperty(propertyName));
+      }
+    }
+    if (replicaProperties.isEmpty()) {
+      return null;
+    }
+    List<DataSource> dataSources = new ArrayList<>();
+    for (Properties properties : replicaProperties.values()) {
+      PooledDataSourceFactory dataSourceFactory = new PooledDataSourceFactory();
+      dataSourceFactory.setProperties(properties);
+      dataSources.add(dataSourceFactory.getDataSource());
+    }
+    String strategy = props.getProperty("replicaStrategy");
+    return new ReplicaDataSources(dataSources,
+        strategy == null ? ReplicaDataSources.Strategy.ROUND_ROBIN : ReplicaDataSources.Strategy.valueOf(strategy));
+  }
+
+  /**
+   * Executes the statement, or all the statements of the namespace, on the primary database.
+   */
+  public void addPrimaryStatement(String statementIdOrNamespace) {
+    primaryStatements.add(statementIdOrNamespace);
+  }
+
+  public Set<String> getPrimaryStatements() {
+    return Collections.unmodifiableSet(primaryStatements);
+  }
+
+  public ReplicaDataSources getReplicas() {
+    return replicas;
+  }
+
+  @Override
+  public Transaction newTransaction(Connection conn) {
+    return primaryTransactionFactory.newTransaction(conn);
+  }
+
+  @Override
+  public Transaction newTransaction(DataSource dataSource, TransactionIsolationLevel level, boolean autoCommit) {
+    if (replicas == null) {
+      throw new TransactionException("RoutingTransactionFactory requires at least one replica. "
+          + "Pass the ReplicaDataSources to the constructor or set the '" + REPLICA_PROPERTY_PREFIX + "<name>.url' properties.");
+    }
+    return new RoutingTransaction(primaryTransactionFactory.newTransaction(dataSource, level, autoCommit), replicas,
+        primaryStatements, autoCommit);
+  }
+
+}
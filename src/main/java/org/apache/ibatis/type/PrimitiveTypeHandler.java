@@ -0,0 +1,108 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A type handler that can read its column as a primitive value, so that it can be set on a primitive property
+ * without boxing it.
+ * <p>
+ * Each handler implements the sub-interface of its primitive type, whose method returns the value read
+ * from the result set as is: the caller checks {@link ResultSet#wasNull()} to detect SQL NULL.
+ * </p>
+ *
+ * @since 3.5.0
+ */
+public interface PrimitiveTypeHandler {
+
+  /**
+   * @return the primitive type read by this handler, for example {@code int.class}
+   */
+  Class<?> getPrimitiveType();
+
+  interface OfInt extends PrimitiveTypeHandler {
+
+    int getIntResult(ResultSet rs, int columnIndex) throws SQLException;
+
+    @Override
+    default Class<?> getPrimitiveType() {
+      return int.class;
+    }
+  }
+
+  interface OfLong extends PrimitiveTypeHandler {
+
+    long getLongResult(ResultSet rs, int columnIndex) throws SQLException;
+
+    @Override
+    default Class<?> getPrimitiveType() {
+      return long.class;
+    }
+  }
+
+  interface OfDouble extends PrimitiveTypeHandler {
+
+    double getDoubleResult(ResultSet rs, int columnIndex) throws SQLException;
+
+    @Override
+    default Class<?> getPrimitiveType() {
+      return double.class;
+    }
+  }
+
+  interface OfFloat extends PrimitiveTypeHandler {
+
+    float getFloatResult(ResultSet rs, int columnIndex) throws SQLException;
+
+    @Override
+    default Class<?> getPrimitiveType() {
+      return float.class;
+    }
+  }
+
+  interface OfShort extends PrimitiveTypeHandler {
+
+    short getShortResult(ResultSet rs, int columnIndex) throws SQLException;
+
+    @Override
+    default Class<?> getPrimitiveType() {
+      return short.class;
+    }
+  }
+
+  interface OfByte extends PrimitiveTypeHandler {
+
+    byte getByteResult(ResultSet rs, int columnIndex) throws SQLException;
+
+    @Override
+    default Class<?> getPrimitiveType() {
+      return byte.class;
+    }
+  }
+
+  interface OfBoolean extends PrimitiveTypeHandler {
+
+    boolean getBooleanResult(ResultSet rs, int columnIndex) throws SQLException;
+
+    @Override
+    default Class<?> getPrimitiveType() {
+      return boolean.class;
+    }
+  }
+
+}
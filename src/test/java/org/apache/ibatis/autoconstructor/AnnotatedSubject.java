@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -40,4 +40,16 @@ public class AnnotatedSubject {
     this.height = height == null ? 0 : height;
     this.weight = weight == null ? 0 : weight;
   }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public int getWeight() {
+    return weight;
+  }
 }
@@ -29,6 +29,9 @@ public interface AutoConstructorMapper {
   @Select("SELECT * FROM subject")
   List<AnnotatedSubject> getAnnotatedSubjects();
 
+  @Select("SELECT id, name, age, height, age AS height FROM subject")
+  List<AnnotatedSubject> getAnnotatedSubjectsWithDuplicateColumnNames();
+
   @Select("SELECT * FROM subject")
   List<BadSubject> getBadSubjects();
 
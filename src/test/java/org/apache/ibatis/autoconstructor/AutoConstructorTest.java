@@ -70,6 +70,32 @@ public class AutoConstructorTest {
     }
   }
 
+  @Test
+  public void annotatedSubjectOfSecondExecution() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      final AutoConstructorMapper mapper = sqlSession.getMapper(AutoConstructorMapper.class);
+      mapper.getAnnotatedSubjects();
+      sqlSession.clearCache();
+      // the constructor resolved by the first execution is reused
+      final List<AnnotatedSubject> subjects = mapper.getAnnotatedSubjects();
+      verifySubjects(subjects);
+      Assertions.assertThat(subjects.get(0).getName()).isEqualTo("a");
+      Assertions.assertThat(subjects.get(0).getHeight()).isEqualTo(100);
+      Assertions.assertThat(subjects.get(1).getHeight()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  public void annotatedSubjectWithDuplicateColumnNames() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      final AutoConstructorMapper mapper = sqlSession.getMapper(AutoConstructorMapper.class);
+      // the arguments are read from the columns in their order, even when two columns have the same name
+      final List<AnnotatedSubject> subjects = mapper.getAnnotatedSubjectsWithDuplicateColumnNames();
+      Assertions.assertThat(subjects.get(0).getHeight()).isEqualTo(100);
+      Assertions.assertThat(subjects.get(0).getWeight()).isEqualTo(10);
+    }
+  }
+
   @Test(expected = PersistenceException.class)
   public void badSubject() {
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -88,6 +88,15 @@ public class XmlConfigBuilderTest {
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.SIMPLE);
       assertNull(config.getDefaultStatementTimeout());
       assertNull(config.getDefaultFetchSize());
+      assertNull(config.getDefaultCursorBatchSize());
+      assertThat(config.isAdaptiveFetchSizeEnabled()).isFalse();
+      assertThat(config.getMinAdaptiveFetchSize()).isEqualTo(10);
+      assertThat(config.getMaxAdaptiveFetchSize()).isEqualTo(1000);
+      assertThat(config.getHedgedQueryPercentile()).isEqualTo(95);
+      assertThat(config.isCompiledRowMappingEnabled()).isFalse();
+      assertThat(config.isCompactMapResultsEnabled()).isFalse();
+      assertThat(config.isColumnIndexReadsEnabled()).isFalse();
+      assertThat(config.getAutoMappingsCacheSize()).isEqualTo(1024);
       assertThat(config.isMapUnderscoreToCamelCase()).isFalse();
       assertThat(config.isSafeRowBoundsEnabled()).isFalse();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.SESSION);
@@ -181,6 +190,15 @@ public class XmlConfigBuilderTest {
         assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.BATCH);
         assertThat(config.getDefaultStatementTimeout()).isEqualTo(10);
         assertThat(config.getDefaultFetchSize()).isEqualTo(100);
+        assertThat(config.getDefaultCursorBatchSize()).isEqualTo(256);
+        assertThat(config.isAdaptiveFetchSizeEnabled()).isTrue();
+        assertThat(config.getMinAdaptiveFetchSize()).isEqualTo(20);
+        assertThat(config.getMaxAdaptiveFetchSize()).isEqualTo(500);
+        assertThat(config.getHedgedQueryPercentile()).isEqualTo(99);
+        assertThat(config.isCompiledRowMappingEnabled()).isTrue();
+        assertThat(config.isCompactMapResultsEnabled()).isTrue();
+        assertThat(config.isColumnIndexReadsEnabled()).isTrue();
+        assertThat(config.getAutoMappingsCacheSize()).isEqualTo(256);
         assertThat(config.isMapUnderscoreToCamelCase()).isTrue();
         assertThat(config.isSafeRowBoundsEnabled()).isTrue();
         assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.STATEMENT);
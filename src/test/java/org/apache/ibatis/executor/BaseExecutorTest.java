@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2015 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -19,6 +19,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import java.util.HashMap;
 import java.util.List;
@@ -29,17 +34,20 @@ import javassist.util.proxy.Proxy;
 import javax.sql.DataSource;
 
 import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Blog;
 import org.apache.ibatis.domain.blog.Post;
 import org.apache.ibatis.domain.blog.Section;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class BaseExecutorTest extends BaseDataTest {
   protected final Configuration config;
@@ -461,6 +469,37 @@ public class BaseExecutorTest extends BaseDataTest {
     }
   }
 
+  @Test
+  public void shouldLoadDeferredLoadsWhenASetterRunsAQuery() throws Exception {
+    Executor executor = createExecutor(new JdbcTransaction(ds, null, false));
+    try {
+      MappedStatement selectStatement = ExecutorTestHelper.prepareSelectOneAuthorMappedStatement(config);
+      CacheKey firstKey = executor.createCacheKey(selectStatement, 101, RowBounds.DEFAULT, selectStatement.getBoundSql(101));
+      CacheKey secondKey = executor.createCacheKey(selectStatement, 102, RowBounds.DEFAULT, selectStatement.getBoundSql(102));
+      MetaObject first = mock(MetaObject.class);
+      MetaObject second = mock(MetaObject.class);
+      doAnswer(invocation -> {
+        // e.g. a lazy loading proxy, the second author is queried while the deferred loads are loaded
+        executor.query(selectStatement, 102, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+        return null;
+      }).when(first).setValue(eq("author"), any());
+      executor.deferLoad(selectStatement, first, "author", firstKey, Author.class);
+      executor.deferLoad(selectStatement, second, "author", secondKey, Author.class);
+
+      executor.query(selectStatement, 101, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+
+      ArgumentCaptor<Object> firstAuthor = ArgumentCaptor.forClass(Object.class);
+      verify(first).setValue(eq("author"), firstAuthor.capture());
+      assertEquals(101, ((Author) firstAuthor.getValue()).getId());
+      ArgumentCaptor<Object> secondAuthor = ArgumentCaptor.forClass(Object.class);
+      verify(second).setValue(eq("author"), secondAuthor.capture());
+      assertEquals(102, ((Author) secondAuthor.getValue()).getId());
+    } finally {
+      executor.rollback(true);
+      executor.close(false);
+    }
+  }
+
   protected Executor createExecutor(Transaction transaction) {
     return new SimpleExecutor(config,transaction);
   }
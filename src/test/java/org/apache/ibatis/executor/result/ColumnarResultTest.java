@@ -0,0 +1,84 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class ColumnarResultTest {
+
+  @Test
+  public void shouldStoreRowsOfSeveralChunks() {
+    ColumnarResult result = new ColumnarResult(Arrays.asList("ID", "NAME"), Arrays.<Class<?>>asList(long.class, Object.class));
+    int rows = ColumnarResult.CHUNK_SIZE * 2 + 3;
+    for (int i = 0; i < rows; i++) {
+      result.addRow();
+      result.setLong(0, i);
+      if (i % 3 == 0) {
+        result.setNull(1);
+      } else {
+        result.setObject(1, "name" + i);
+      }
+    }
+    assertEquals(rows, result.getRowCount());
+    long[] ids = result.getLongs(0);
+    Object[] names = result.getObjects(1);
+    assertEquals(rows, ids.length);
+    for (int i = 0; i < rows; i++) {
+      assertEquals(i, ids[i]);
+      assertEquals(i, result.getLong(0, i));
+      assertFalse(result.isNull(0, i));
+      assertEquals(i % 3 == 0, result.isNull(1, i));
+      assertEquals(i % 3 == 0 ? null : "name" + i, names[i]);
+    }
+  }
+
+  @Test
+  public void shouldGrowFirstChunk() {
+    ColumnarResult result = new ColumnarResult(Arrays.asList("ID", "AMOUNT", "NAME"),
+        Arrays.<Class<?>>asList(int.class, double.class, Object.class));
+    int rows = ColumnarResult.INITIAL_CHUNK_SIZE * 3 + 1;
+    for (int i = 0; i < rows; i++) {
+      result.addRow();
+      result.setInt(0, i);
+      if (i % 2 == 0) {
+        result.setNull(1);
+      } else {
+        result.setDouble(1, i / 2.0);
+      }
+      result.setObject(2, "name" + i);
+    }
+    for (int i = 0; i < rows; i++) {
+      assertEquals(i, result.getInt(0, i));
+      assertEquals(i % 2 == 0, result.isNull(1, i));
+      assertEquals(i % 2 == 0 ? 0 : i / 2.0, result.getDouble(1, i), 0);
+      assertEquals("name" + i, result.getObject(2, i));
+    }
+    assertEquals(rows, result.getInts(0).length);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void shouldNotReadMissingRow() {
+    ColumnarResult result = new ColumnarResult(Arrays.asList("ID"), Arrays.<Class<?>>asList(int.class));
+    result.addRow();
+    result.getInt(0, 1);
+  }
+
+}
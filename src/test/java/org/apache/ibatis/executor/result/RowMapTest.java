@@ -0,0 +1,103 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class RowMapTest {
+
+  private final RowMap.Schema schema = new RowMap.Schema(Arrays.asList("ID", "NAME", "AGE"));
+
+  @Test
+  public void shouldShareSchema() {
+    RowMap first = new RowMap(schema);
+    RowMap second = new RowMap(schema);
+    first.set(0, 1);
+    second.set(0, 2);
+    assertSame(first.getSchema(), second.getSchema());
+    assertEquals(1, first.get("ID"));
+    assertEquals(2, second.get("ID"));
+  }
+
+  @Test
+  public void shouldBehaveAsHashMap() {
+    RowMap rowMap = new RowMap(schema);
+    Map<String, Object> hashMap = new HashMap<>();
+    for (Map<String, Object> map : Arrays.asList(rowMap, hashMap)) {
+      map.put("ID", 1);
+      map.put("AGE", null);
+      map.put("OTHER", "x");
+    }
+    assertEquals(hashMap, rowMap);
+    assertEquals(rowMap, hashMap);
+    assertEquals(hashMap.hashCode(), rowMap.hashCode());
+    assertEquals(3, rowMap.size());
+    assertTrue(rowMap.containsKey("AGE"));
+    assertFalse(rowMap.containsKey("NAME"));
+    assertNull(rowMap.get("NAME"));
+    assertEquals(1, rowMap.remove("ID"));
+    assertNull(rowMap.remove("ID"));
+    assertEquals("x", rowMap.remove("OTHER"));
+    assertEquals(1, rowMap.size());
+  }
+
+  @Test
+  public void shouldIterateInSchemaOrder() {
+    RowMap rowMap = new RowMap(schema);
+    rowMap.put("OTHER", "x");
+    rowMap.put("AGE", 30);
+    rowMap.put("ID", 1);
+    assertEquals("{ID=1, AGE=30, OTHER=x}", rowMap.toString());
+    Iterator<Map.Entry<String, Object>> iterator = rowMap.entrySet().iterator();
+    iterator.next().setValue(2);
+    iterator.next();
+    iterator.remove();
+    assertEquals("{ID=2, OTHER=x}", rowMap.toString());
+  }
+
+  @Test
+  public void shouldSerialize() throws Exception {
+    RowMap rowMap = new RowMap(schema);
+    rowMap.put("ID", 1);
+    rowMap.put("NAME", null);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(rowMap);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      RowMap copy = (RowMap) in.readObject();
+      assertEquals(rowMap, copy);
+      assertTrue(copy.containsKey("NAME"));
+      assertFalse(copy.containsKey("AGE"));
+    }
+  }
+
+}
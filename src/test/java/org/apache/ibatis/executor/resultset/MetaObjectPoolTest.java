@@ -0,0 +1,66 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class MetaObjectPoolTest {
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  public void shouldReuseMetaObjectsPerNestingLevel() {
+    ResultMap resultMap = new ResultMap.Builder(configuration, "blog", Blog.class, new ArrayList<>()).build();
+    MetaObjectPool pool = new MetaObjectPool(configuration);
+    Blog first = new Blog();
+    MetaObject metaObject = pool.acquire(resultMap, first);
+    MetaObject nestedMetaObject = pool.acquire(resultMap, new Blog());
+    assertNotSame(metaObject, nestedMetaObject);
+    pool.release(nestedMetaObject);
+    pool.release(metaObject);
+    Blog second = new Blog();
+    assertSame(metaObject, pool.acquire(resultMap, second));
+    assertSame(second, metaObject.getOriginalObject());
+    metaObject.setValue("title", "second");
+    assertEquals("second", second.getTitle());
+    assertEquals(null, first.getTitle());
+  }
+
+  @Test
+  public void shouldNotReuseMetaObjectsKeptByLazyLoaders() {
+    ResultMapping nestedQuery = new ResultMapping.Builder(configuration, "author", "author_id", Author.class)
+        .nestedQueryId("selectAuthor").build();
+    ResultMap resultMap = new ResultMap.Builder(configuration, "blog", Blog.class, Collections.singletonList(nestedQuery)).build();
+    MetaObjectPool pool = new MetaObjectPool(configuration);
+    MetaObject metaObject = pool.acquire(resultMap, new Blog());
+    pool.release(metaObject);
+    assertNotSame(metaObject, pool.acquire(resultMap, new Blog()));
+  }
+
+}
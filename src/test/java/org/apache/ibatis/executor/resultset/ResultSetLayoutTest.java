@@ -0,0 +1,135 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.apache.ibatis.mapping.ResultFlag;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ResultSetLayoutTest {
+
+  @Mock
+  private ResultSetMetaData rsmd;
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  public void shouldReuseLayoutOfSameColumns() throws Exception {
+    givenColumns("ID", "NAME");
+    ResultSetLayout layout = new ResultSetLayout(rsmd, configuration);
+    assertEquals(Arrays.asList("ID", "NAME"), layout.getColumnNames());
+    assertSame(layout, ResultSetLayout.of(rsmd, configuration, layout));
+  }
+
+  @Test
+  public void shouldNotReuseLayoutOfOtherColumns() throws Exception {
+    givenColumns("ID", "NAME");
+    ResultSetLayout layout = new ResultSetLayout(rsmd, configuration);
+    givenColumns("ID", "LABEL");
+    ResultSetLayout otherLayout = ResultSetLayout.of(rsmd, configuration, layout);
+    assertNotSame(layout, otherLayout);
+    assertEquals(Arrays.asList("ID", "LABEL"), otherLayout.getColumnNames());
+  }
+
+  @Test
+  public void shouldNotReuseLayoutOfOtherColumnTypes() throws Exception {
+    givenColumns("ID", "NAME");
+    ResultSetLayout layout = new ResultSetLayout(rsmd, configuration);
+    givenColumns(new int[] { Types.INTEGER, Types.VARCHAR }, "ID", "NAME");
+    ResultSetLayout otherLayout = ResultSetLayout.of(rsmd, configuration, layout);
+    assertNotSame(layout, otherLayout);
+    assertEquals(JdbcType.INTEGER, otherLayout.getJdbcType("ID"));
+  }
+
+  @Test
+  public void shouldNotReuseLayoutOfOtherColumnClasses() throws Exception {
+    givenColumns("ID", "NAME");
+    ResultSetLayout layout = new ResultSetLayout(rsmd, configuration);
+    when(rsmd.getColumnClassName(2)).thenReturn(Object.class.getName());
+    ResultSetLayout otherLayout = ResultSetLayout.of(rsmd, configuration, layout);
+    assertNotSame(layout, otherLayout);
+    assertEquals(Object.class.getName(), otherLayout.getClassNames().get(1));
+  }
+
+  @Test
+  public void shouldResolvePropertyColumnIndexesIgnoringCase() throws Exception {
+    givenColumns("ID", "P_NAME");
+    ResultSetLayout layout = new ResultSetLayout(rsmd, configuration);
+    TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+    ResultMap resultMap = new ResultMap.Builder(configuration, "map", HashMap.class, new ArrayList<ResultMapping>(Arrays.asList(
+        new ResultMapping.Builder(configuration, "id", "id", registry.getTypeHandler(Integer.class)).build(),
+        new ResultMapping.Builder(configuration, "name", "name", registry.getTypeHandler(String.class)).build(),
+        new ResultMapping.Builder(configuration, "other", "other", registry.getTypeHandler(String.class)).build()))).build();
+    assertArrayEquals(new int[] { 1, -1, -1 }, layout.getPropertyColumnIndexes(resultMap, null));
+    assertArrayEquals(new int[] { -1, 2, -1 }, layout.getPropertyColumnIndexes(resultMap, "p_"));
+  }
+
+  @Test
+  public void shouldResolveIntegralRowKeyColumn() throws Exception {
+    givenColumns(new int[] { Types.VARCHAR, Types.BIGINT }, "NAME", "ID");
+    ResultSetLayout layout = new ResultSetLayout(rsmd, configuration);
+    TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+    ResultMap idResultMap = new ResultMap.Builder(configuration, "idMap", HashMap.class, new ArrayList<ResultMapping>(Arrays.asList(
+        new ResultMapping.Builder(configuration, "id", "id", registry.getTypeHandler(Long.class)).build(),
+        new ResultMapping.Builder(configuration, "name", "name", registry.getTypeHandler(String.class)).build()))).build();
+    ResultMap nameResultMap = new ResultMap.Builder(configuration, "nameMap", HashMap.class, new ArrayList<ResultMapping>(Arrays.asList(
+        new ResultMapping.Builder(configuration, "name", "name", registry.getTypeHandler(String.class))
+            .flags(Arrays.asList(ResultFlag.ID)).build()))).build();
+    assertEquals(-1, layout.getIntegralRowKeyColumnIndex(idResultMap));
+    ResultMap longIdResultMap = new ResultMap.Builder(configuration, "longIdMap", HashMap.class, new ArrayList<ResultMapping>(Arrays.asList(
+        new ResultMapping.Builder(configuration, "id", "id", registry.getTypeHandler(Long.class))
+            .flags(Arrays.asList(ResultFlag.ID)).build(),
+        new ResultMapping.Builder(configuration, "name", "name", registry.getTypeHandler(String.class)).build()))).build();
+    assertEquals(2, layout.getIntegralRowKeyColumnIndex(longIdResultMap));
+    assertEquals(-1, layout.getIntegralRowKeyColumnIndex(nameResultMap));
+  }
+
+  private void givenColumns(String... columnNames) throws Exception {
+    int[] columnTypes = new int[columnNames.length];
+    Arrays.fill(columnTypes, Types.VARCHAR);
+    givenColumns(columnTypes, columnNames);
+  }
+
+  private void givenColumns(int[] columnTypes, String... columnNames) throws Exception {
+    when(rsmd.getColumnCount()).thenReturn(columnNames.length);
+    for (int i = 0; i < columnNames.length; i++) {
+      when(rsmd.getColumnLabel(i + 1)).thenReturn(columnNames[i]);
+      when(rsmd.getColumnType(i + 1)).thenReturn(columnTypes[i]);
+      when(rsmd.getColumnClassName(i + 1)).thenReturn(String.class.getName());
+    }
+  }
+
+}
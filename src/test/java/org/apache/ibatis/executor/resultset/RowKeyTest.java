@@ -0,0 +1,76 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RowKeyTest {
+
+  @Mock
+  private ResultSet rs;
+
+  private final RowKey.Columns columns = new RowKey.Columns(new int[] { 1, 2 },
+      new TypeHandler<?>[] { new IntegerTypeHandler(), null });
+
+  @Test
+  public void shouldIdentifyRowsByValues() throws Exception {
+    when(rs.getInt(1)).thenReturn(1, 1, 1, 2);
+    when(rs.getString(2)).thenReturn("a");
+    RowKey rowKey = columns.createRowKey(rs, "map", null, null, false);
+    assertEquals(rowKey, columns.createRowKey(rs, "map", null, null, false));
+    assertEquals(rowKey.hashCode(), columns.createRowKey(rs, "map", null, null, false).hashCode());
+    assertNotEquals(rowKey, columns.createRowKey(rs, "map", null, null, false));
+  }
+
+  @Test
+  public void shouldIdentifyRowsByResultMapPrefixAndParent() throws Exception {
+    when(rs.getInt(1)).thenReturn(1);
+    when(rs.getString(2)).thenReturn("a");
+    RowKey rowKey = columns.createRowKey(rs, "map", null, null, false);
+    assertNotEquals(rowKey, columns.createRowKey(rs, "other", null, null, false));
+    assertNotEquals(rowKey, columns.createRowKey(rs, "map", "P_", null, false));
+    RowKey childKey = columns.createRowKey(rs, "map", null, rowKey, false);
+    assertNotEquals(rowKey, childKey);
+    assertEquals(childKey, columns.createRowKey(rs, "map", null, columns.createRowKey(rs, "map", null, null, false), false));
+  }
+
+  @Test
+  public void shouldNotIdentifyRowsWithoutValues() throws Exception {
+    when(rs.getInt(1)).thenReturn(0);
+    when(rs.wasNull()).thenReturn(true);
+    assertSame(RowKey.NULL, columns.createRowKey(rs, "map", null, null, false));
+    assertNotEquals(RowKey.NULL, columns.createRowKey(rs, "map", null, null, true));
+  }
+
+  @Test
+  public void shouldNotIdentifyRowsOfParentWithoutKey() throws Exception {
+    assertSame(RowKey.NULL, columns.createRowKey(rs, "map", null, RowKey.NULL, false));
+  }
+
+}
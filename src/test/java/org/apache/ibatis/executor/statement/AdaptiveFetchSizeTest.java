@@ -0,0 +1,67 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class AdaptiveFetchSizeTest {
+
+  @Test
+  public void shouldNotSuggestFetchSizeBeforeFirstExecution() {
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize();
+    assertNull(adaptiveFetchSize.getFetchSize(10, 1000));
+  }
+
+  @Test
+  public void shouldSuggestAverageRowsPlusOneWithinBounds() {
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize();
+    adaptiveFetchSize.record(100, 5);
+    assertEquals(Integer.valueOf(101), adaptiveFetchSize.getFetchSize(10, 1000));
+    assertEquals(Integer.valueOf(50), adaptiveFetchSize.getFetchSize(10, 50));
+    assertEquals(Integer.valueOf(200), adaptiveFetchSize.getFetchSize(200, 1000));
+  }
+
+  @Test
+  public void shouldSuggestMinimumForSingleRowLookups() {
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize();
+    adaptiveFetchSize.record(1, 5);
+    assertEquals(Integer.valueOf(10), adaptiveFetchSize.getFetchSize(10, 1000));
+  }
+
+  @Test
+  public void shouldLowerUpperBoundForWideRows() {
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize();
+    adaptiveFetchSize.record(100000, 40);
+    assertEquals(Integer.valueOf(250), adaptiveFetchSize.getFetchSize(10, 1000));
+  }
+
+  @Test
+  public void shouldFollowRecentExecutions() {
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize();
+    adaptiveFetchSize.record(100, 5);
+    adaptiveFetchSize.record(200, 5);
+    assertEquals(2, adaptiveFetchSize.getExecutions());
+    assertEquals(120.0, adaptiveFetchSize.getAverageRows(), 0.001);
+    assertEquals(Integer.valueOf(121), adaptiveFetchSize.getFetchSize(10, 1000));
+
+    adaptiveFetchSize.reset();
+    assertNull(adaptiveFetchSize.getFetchSize(10, 1000));
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2016 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -141,4 +141,52 @@ public class BaseStatementHandlerTest {
         verify(statement).setQueryTimeout(10);
     }
 
+    @Test
+    public void specifyDefaultFetchSizeOnly() throws SQLException {
+        doReturn(100).when(configuration).getDefaultFetchSize();
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(100); // apply a default fetch size
+    }
+
+    @Test
+    public void specifyAdaptiveFetchSizeWithoutObservation() throws SQLException {
+        doReturn(true).when(configuration).isAdaptiveFetchSizeEnabled();
+        doReturn(100).when(configuration).getDefaultFetchSize();
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(100); // nothing learned yet, apply a default fetch size
+    }
+
+    @Test
+    public void specifyAdaptiveFetchSizeAndDefaultFetchSize() throws SQLException {
+        doReturn(true).when(configuration).isAdaptiveFetchSizeEnabled();
+        doReturn(100).when(configuration).getDefaultFetchSize();
+        MappedStatement mappedStatement = mappedStatementBuilder.build();
+        mappedStatement.getAdaptiveFetchSize().record(500, 3);
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatement, null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(501); // apply a learned fetch size
+        verify(configuration, never()).getDefaultFetchSize();
+    }
+
+    @Test
+    public void specifyMappedStatementFetchSizeAndAdaptiveFetchSize() throws SQLException {
+        doReturn(true).when(configuration).isAdaptiveFetchSizeEnabled();
+        mappedStatementBuilder.fetchSize(50);
+        MappedStatement mappedStatement = mappedStatementBuilder.build();
+        mappedStatement.getAdaptiveFetchSize().record(500, 3);
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatement, null, null, null, null);
+        handler.setFetchSize(statement);
+
+        verify(statement).setFetchSize(50); // apply a mapped statement fetch size
+    }
+
 }
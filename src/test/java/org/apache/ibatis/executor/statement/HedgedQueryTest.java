@@ -0,0 +1,228 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HedgedQueryTest {
+
+  private MappedStatement mappedStatement;
+  private Statement primaryStatement;
+  private StatementHandler primaryHandler;
+  private Statement backupStatement;
+  private StatementHandler backupHandler;
+
+  @Before
+  public void setUp() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection backupConnection = mock(Connection.class);
+    when(dataSource.getConnection()).thenReturn(backupConnection);
+    Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+    mappedStatement = new MappedStatement.Builder(configuration, "org.Mapper.select",
+        new StaticSqlSource(configuration, "select 1"), SqlCommandType.SELECT).hedged(true).build();
+    for (int i = 0; i < QueryLatency.MIN_SAMPLE_SIZE; i++) {
+      mappedStatement.getQueryLatency().record(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    Connection primaryConnection = mock(Connection.class);
+    when(primaryConnection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+    primaryStatement = mock(Statement.class);
+    when(primaryStatement.getConnection()).thenReturn(primaryConnection);
+    primaryHandler = mock(StatementHandler.class);
+    backupStatement = mock(Statement.class);
+    backupHandler = mock(StatementHandler.class);
+    when(backupHandler.prepare(any(Connection.class), any())).thenReturn(backupStatement);
+  }
+
+  @AfterClass
+  public static void shutdown() {
+    HedgedQuery.shutdown();
+  }
+
+  @Test
+  public void shouldReturnBackupResultWhenBackupWins() throws Exception {
+    CountDownLatch cancelled = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      cancelled.countDown();
+      return null;
+    }).when(primaryStatement).cancel();
+    when(primaryHandler.query(primaryStatement, null)).thenAnswer(invocation -> {
+      assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+      throw new SQLException("cancelled");
+    });
+    when(backupHandler.query(backupStatement, null)).thenReturn(Collections.singletonList("backup"));
+
+    List<Object> result = newHedgedQuery().query(primaryHandler, primaryStatement);
+
+    assertEquals(Collections.singletonList("backup"), result);
+    verify(backupHandler).parameterize(backupStatement);
+    verify(backupStatement, timeout(10000)).close();
+  }
+
+  @Test
+  public void shouldNotReturnBeforePrimaryIsCancelled() throws Exception {
+    CountDownLatch backupDone = new CountDownLatch(1);
+    AtomicBoolean cancelStarted = new AtomicBoolean();
+    AtomicBoolean cancelCompleted = new AtomicBoolean();
+    doAnswer(invocation -> {
+      cancelStarted.set(true);
+      Thread.sleep(100);
+      cancelCompleted.set(true);
+      return null;
+    }).when(primaryStatement).cancel();
+    when(primaryHandler.query(primaryStatement, null)).thenAnswer(invocation -> {
+      // completes right after the backup, which may still be cancelling this execution
+      assertTrue(backupDone.await(10, TimeUnit.SECONDS));
+      return Collections.singletonList("primary");
+    });
+    when(backupHandler.query(backupStatement, null)).thenAnswer(invocation -> {
+      backupDone.countDown();
+      return Collections.singletonList("backup");
+    });
+
+    newHedgedQuery().query(primaryHandler, primaryStatement);
+
+    assertEquals(cancelStarted.get(), cancelCompleted.get());
+  }
+
+  @Test
+  public void shouldCancelBackupWhenPrimaryWins() throws Exception {
+    CountDownLatch backupStarted = new CountDownLatch(1);
+    CountDownLatch backupCancelled = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      backupCancelled.countDown();
+      return null;
+    }).when(backupStatement).cancel();
+    when(backupHandler.query(backupStatement, null)).thenAnswer(invocation -> {
+      backupStarted.countDown();
+      assertTrue(backupCancelled.await(10, TimeUnit.SECONDS));
+      throw new SQLException("cancelled");
+    });
+    when(primaryHandler.query(primaryStatement, null)).thenAnswer(invocation -> {
+      assertTrue(backupStarted.await(10, TimeUnit.SECONDS));
+      return Collections.singletonList("primary");
+    });
+
+    List<Object> result = newHedgedQuery().query(primaryHandler, primaryStatement);
+
+    assertEquals(Collections.singletonList("primary"), result);
+    verify(backupStatement, timeout(10000)).cancel();
+    verify(backupStatement, timeout(10000)).close();
+    verify(primaryStatement, never()).cancel();
+  }
+
+  @Test
+  public void shouldNotHedgeBeforeEnoughExecutions() throws Exception {
+    Configuration configuration = mappedStatement.getConfiguration();
+    mappedStatement = new MappedStatement.Builder(configuration, "org.Mapper.select2",
+        new StaticSqlSource(configuration, "select 1"), SqlCommandType.SELECT).hedged(true).build();
+    when(primaryHandler.query(primaryStatement, null)).thenAnswer(invocation -> {
+      Thread.sleep(50);
+      return Collections.singletonList("primary");
+    });
+
+    List<Object> result = newHedgedQuery().query(primaryHandler, primaryStatement);
+
+    assertEquals(Collections.singletonList("primary"), result);
+    assertEquals(1, mappedStatement.getQueryLatency().getCount());
+    verify(backupHandler, never()).prepare(any(Connection.class), any());
+  }
+
+  @Test
+  public void shouldHedgeOnlyInAutoCommitMode() throws Exception {
+    when(primaryStatement.getConnection().getAutoCommit()).thenReturn(false);
+    assertFalse(HedgedQuery.isApplicable(mappedStatement, null, primaryStatement));
+
+    when(primaryStatement.getConnection().getAutoCommit()).thenReturn(true);
+    assertTrue(HedgedQuery.isApplicable(mappedStatement, null, primaryStatement));
+  }
+
+  @Test
+  public void shouldNotHedgeInNonAutoCommitSession() throws Exception {
+    DataSource dataSource = new UnpooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:hedged", "sa", "");
+    Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+    ResultMap resultMap = new ResultMap.Builder(configuration, "org.Mapper.count-Inline", Integer.class,
+        new ArrayList<>()).build();
+    MappedStatement count = new MappedStatement.Builder(configuration, "org.Mapper.count",
+        new StaticSqlSource(configuration, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SYSTEM_USERS"), SqlCommandType.SELECT)
+        .resultMaps(Collections.singletonList(resultMap)).hedged(true).build();
+    configuration.addMappedStatement(count);
+    QueryLatency latency = count.getQueryLatency();
+    for (int i = 0; i < QueryLatency.MIN_SAMPLE_SIZE; i++) {
+      latency.record(TimeUnit.HOURS.toNanos(1));
+    }
+    SqlSessionFactory sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
+
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(false)) {
+      sqlSession.selectList("org.Mapper.count");
+      assertEquals(QueryLatency.MIN_SAMPLE_SIZE, latency.getCount());
+      sqlSession.selectList("org.Mapper.count");
+      assertEquals(QueryLatency.MIN_SAMPLE_SIZE, latency.getCount());
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+      sqlSession.selectList("org.Mapper.count");
+      assertEquals(QueryLatency.MIN_SAMPLE_SIZE + 1, latency.getCount());
+    }
+  }
+
+  private HedgedQuery newHedgedQuery() {
+    return new HedgedQuery(mappedStatement, null, RowBounds.DEFAULT, mappedStatement.getBoundSql(null)) {
+      @Override
+      protected StatementHandler newBackupHandler(Executor executor) {
+        return backupHandler;
+      }
+    };
+  }
+
+}
@@ -0,0 +1,74 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class QueryLatencyTest {
+
+  @Test
+  public void shouldNotComputePercentileBeforeEnoughExecutions() {
+    QueryLatency latency = new QueryLatency();
+    for (int i = 1; i < QueryLatency.MIN_SAMPLE_SIZE; i++) {
+      latency.record(i);
+    }
+    assertNull(latency.getPercentile(95));
+  }
+
+  @Test
+  public void shouldComputePercentile() {
+    QueryLatency latency = new QueryLatency();
+    for (int i = 100; i > 0; i--) {
+      latency.record(i);
+    }
+    assertEquals(Long.valueOf(95), latency.getPercentile(95));
+    assertEquals(Long.valueOf(50), latency.getPercentile(50));
+    assertEquals(Long.valueOf(100), latency.getPercentile(100));
+    assertEquals(Long.valueOf(1), latency.getPercentile(1));
+  }
+
+  @Test
+  public void shouldSortAgainAfterResortInterval() {
+    QueryLatency latency = new QueryLatency();
+    for (int i = 0; i < QueryLatency.MIN_SAMPLE_SIZE; i++) {
+      latency.record(10);
+    }
+    assertEquals(Long.valueOf(10), latency.getPercentile(100));
+    for (int i = 1; i < QueryLatency.RESORT_INTERVAL; i++) {
+      latency.record(1000);
+    }
+    assertEquals(Long.valueOf(10), latency.getPercentile(100));
+    latency.record(1000);
+    assertEquals(Long.valueOf(1000), latency.getPercentile(100));
+  }
+
+  @Test
+  public void shouldKeepLastExecutionsOnly() {
+    QueryLatency latency = new QueryLatency();
+    for (int i = 0; i < QueryLatency.SAMPLE_SIZE; i++) {
+      latency.record(1000);
+    }
+    for (int i = 0; i < QueryLatency.SAMPLE_SIZE; i++) {
+      latency.record(10);
+    }
+    assertEquals(Long.valueOf(10), latency.getPercentile(99));
+    assertEquals(2 * QueryLatency.SAMPLE_SIZE, latency.getCount());
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2016 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -58,6 +58,22 @@ public class BoundSqlTest {
     assertTrue("should return true even if the element does not exists.", boundSql.hasAdditionalParameter("array[99]"));
   }
 
+  @Test
+  public void testGetAdditionalParameter() throws Exception {
+    List<ParameterMapping> params = Collections.emptyList();
+    BoundSql boundSql = new BoundSql(new Configuration(), "some sql", params, new Object());
+
+    Person bean = new Person();
+    bean.id = 1;
+    boundSql.setAdditionalParameter("person", bean);
+    boundSql.setAdditionalParameter("__frch_item_0", "User1");
+
+    assertSame(bean, boundSql.getAdditionalParameter("person"));
+    assertEquals(1, boundSql.getAdditionalParameter("person.id"));
+    assertEquals("User1", boundSql.getAdditionalParameter("__frch_item_0"));
+    assertNull(boundSql.getAdditionalParameter("pet"));
+  }
+
   public static class Person {
     public Integer id;
   }
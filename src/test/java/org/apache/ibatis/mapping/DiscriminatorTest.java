@@ -0,0 +1,53 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.mapping;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class DiscriminatorTest {
+
+  @Test
+  public void shouldResolveResultMapOfValues() {
+    Configuration configuration = new Configuration();
+    ResultMap carResultMap = new ResultMap.Builder(configuration, "car", HashMap.class, new ArrayList<ResultMapping>()).build();
+    configuration.addResultMap(carResultMap);
+    Map<String, String> cases = new HashMap<>();
+    cases.put("1", "car");
+    cases.put("2", "truck");
+    cases.put("null", "car");
+    Discriminator discriminator = new Discriminator.Builder(configuration,
+        new ResultMapping.Builder(configuration, "type", "type", Integer.class).build(), cases).build();
+    assertSame(carResultMap, discriminator.getResultMapFor(1));
+    assertSame(carResultMap, discriminator.getResultMapFor(1));
+    assertSame(carResultMap, discriminator.getResultMapFor("1"));
+    assertSame(carResultMap, discriminator.getResultMapFor(null));
+    assertNull(discriminator.getResultMapFor(3));
+    // not cached while the result map does not exist
+    assertNull(discriminator.getResultMapFor(2));
+    ResultMap truckResultMap = new ResultMap.Builder(configuration, "truck", HashMap.class, new ArrayList<ResultMapping>()).build();
+    configuration.addResultMap(truckResultMap);
+    assertSame(truckResultMap, discriminator.getResultMapFor(2));
+  }
+
+}
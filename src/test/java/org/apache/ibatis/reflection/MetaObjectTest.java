@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2015 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -302,4 +302,21 @@ public class MetaObjectTest {
     assertTrue(meta.hasGetter("filterParams[2]"));
   }
 
+  @Test
+  @SuppressWarnings("deprecation")
+  public void shouldResetToAnotherObject() {
+    RichType first = new RichType();
+    RichType second = new RichType();
+    MetaObject meta = SystemMetaObject.forObject(first);
+    meta.setValue("richProperty", "foo");
+    meta.reset(second);
+    meta.setValue("richProperty", "bar");
+    assertEquals("foo", first.getRichProperty());
+    assertEquals("bar", second.getRichProperty());
+    assertEquals(second, meta.getOriginalObject());
+    meta.reset(new HashMap<String, Object>());
+    meta.setValue("id", 1);
+    assertEquals(1, meta.getValue("id"));
+  }
+
 }
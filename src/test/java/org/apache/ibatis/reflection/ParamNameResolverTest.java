@@ -0,0 +1,110 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.Test;
+
+public class ParamNameResolverTest {
+
+  interface Mapper {
+    void select(@Param("id") Integer id, RowBounds rowBounds, @Param("param1") String name, @Param("flag") boolean flag);
+  }
+
+  @Test
+  public void shouldReadArgumentsByNameAndGenericName() throws Exception {
+    Map<String, Object> param = namedParams(1, RowBounds.DEFAULT, "a", true);
+    assertEquals(5, param.size());
+    assertEquals(1, param.get("id"));
+    assertEquals("a", param.get("param1"));
+    assertEquals(true, param.get("flag"));
+    assertEquals("a", param.get("param2"));
+    assertEquals(true, param.get("param3"));
+    assertTrue(param.containsKey("flag"));
+    assertFalse(param.containsKey("param4"));
+  }
+
+  @Test
+  public void shouldBeEqualToTheMapBuiltEntryByEntry() throws Exception {
+    Map<String, Object> expected = new HashMap<>();
+    expected.put("id", 1);
+    expected.put("param1", "a");
+    expected.put("flag", true);
+    expected.put("param3", true);
+    expected.put("param2", "a");
+    Map<String, Object> param = namedParams(1, RowBounds.DEFAULT, "a", true);
+    assertEquals(expected, param);
+    assertEquals(expected, new HashMap<>(param));
+  }
+
+  @Test
+  public void shouldKeepArgumentsWhenModified() throws Exception {
+    Map<String, Object> param = namedParams(1, RowBounds.DEFAULT, "a", true);
+    param.put("extra", "b");
+    param.put("id", 2);
+    assertEquals(6, param.size());
+    assertEquals("b", param.get("extra"));
+    assertEquals(2, param.get("id"));
+    assertEquals("a", param.get("param1"));
+  }
+
+  @Test
+  public void shouldFailOnUnknownParameter() throws Exception {
+    Map<String, Object> param = namedParams(1, RowBounds.DEFAULT, "a", true);
+    try {
+      param.get("name");
+      fail();
+    } catch (BindingException e) {
+      assertTrue(e.getMessage().startsWith("Parameter 'name' not found. Available parameters are "));
+    }
+  }
+
+  @Test
+  public void shouldSerializeArguments() throws Exception {
+    Map<String, Object> param = namedParams(1, RowBounds.DEFAULT, "a", true);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(param);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertEquals(param, in.readObject());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> namedParams(Object... args) throws Exception {
+    Method method = Mapper.class.getMethod("select", Integer.class, RowBounds.class, String.class, boolean.class);
+    ParamNameResolver resolver = new ParamNameResolver(new Configuration(), method);
+    return (Map<String, Object>) resolver.getNamedParams(args);
+  }
+
+}
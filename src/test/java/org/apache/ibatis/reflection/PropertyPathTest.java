@@ -0,0 +1,147 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class PropertyPathTest {
+
+  public static class Order {
+    private Customer customer;
+    private List<Item> items = new ArrayList<>();
+    private Map<String, Object> extra = new HashMap<>();
+    private int[] quantities;
+
+    public Customer getCustomer() {
+      return customer;
+    }
+
+    public void setCustomer(Customer customer) {
+      this.customer = customer;
+    }
+
+    public List<Item> getItems() {
+      return items;
+    }
+
+    public Map<String, Object> getExtra() {
+      return extra;
+    }
+
+    public int[] getQuantities() {
+      return quantities;
+    }
+
+    public void setQuantities(int[] quantities) {
+      this.quantities = quantities;
+    }
+  }
+
+  public static class Customer {
+    private String name;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  public static class Item {
+    private Double price;
+
+    public Item(Double price) {
+      this.price = price;
+    }
+
+    public Double getPrice() {
+      return price;
+    }
+  }
+
+  @Test
+  public void shouldBeCachedPerTypeAndExpression() {
+    Reflector reflector = new DefaultReflectorFactory().findForClass(Order.class);
+    assertSame(reflector.getPropertyPath("customer.name"), reflector.getPropertyPath("customer.name"));
+    assertEquals("customer.name", reflector.getPropertyPath("customer.name").getExpression());
+  }
+
+  @Test
+  public void shouldNotCacheIndexedExpressions() {
+    Reflector reflector = new DefaultReflectorFactory().findForClass(Order.class);
+    assertNotSame(reflector.getPropertyPath("items[123].price"), reflector.getPropertyPath("items[123].price"));
+    assertEquals("items[123].price", reflector.getPropertyPath("items[123].price").getExpression());
+  }
+
+  @Test
+  public void shouldGetNestedAndIndexedValues() {
+    Order order = new Order();
+    order.getItems().add(new Item(1.5));
+    order.getItems().add(new Item(2.5));
+    order.setQuantities(new int[] { 3, 4 });
+    MetaObject metaObject = SystemMetaObject.forObject(order);
+    assertNull(metaObject.getValue("customer.name"));
+    assertEquals(2.5, metaObject.getValue("items[1].price"));
+    assertEquals(4, metaObject.getValue("quantities[1]"));
+  }
+
+  @Test
+  public void shouldInstantiateIntermediateValuesOnSet() {
+    Order order = new Order();
+    MetaObject metaObject = SystemMetaObject.forObject(order);
+    metaObject.setValue("customer.name", null);
+    assertNull(order.getCustomer());
+    metaObject.setValue("customer.name", "Clinton");
+    assertEquals("Clinton", order.getCustomer().getName());
+    assertEquals("Clinton", metaObject.getValue("customer.name"));
+  }
+
+  @Test
+  public void shouldAccessMapsInPathThroughMetaObject() {
+    Order order = new Order();
+    Customer customer = new Customer();
+    customer.setName("Clinton");
+    order.getExtra().put("customer", customer);
+    MetaObject metaObject = SystemMetaObject.forObject(order);
+    metaObject.setValue("extra.note", "fragile");
+    assertEquals("fragile", order.getExtra().get("note"));
+    assertEquals("Clinton", metaObject.getValue("extra.customer.name"));
+  }
+
+  @Test
+  public void shouldFailWhenThereIsNoGetter() {
+    MetaObject metaObject = SystemMetaObject.forObject(new Order());
+    try {
+      metaObject.getValue("unknown.name");
+      fail();
+    } catch (ReflectionException e) {
+      assertEquals("There is no getter for property named 'unknown' in 'class " + Order.class.getName() + "'", e.getMessage());
+    }
+  }
+}
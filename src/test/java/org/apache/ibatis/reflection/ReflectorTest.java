@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -18,8 +18,14 @@ package org.apache.ibatis.reflection;
 import static org.junit.Assert.*;
 
 import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 
+import org.apache.ibatis.reflection.invoker.DirectGetFieldInvoker;
+import org.apache.ibatis.reflection.invoker.DirectMethodInvoker;
+import org.apache.ibatis.reflection.invoker.MethodInvoker;
+import org.apache.ibatis.reflection.invoker.PrimitiveSetterInvoker;
+import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
 import org.junit.Assert;
 import org.junit.Test;
 import static com.googlecode.catchexception.apis.BDDCatchException.*;
@@ -210,4 +216,114 @@ public class ReflectorTest {
     Reflector reflector = reflectorFactory.findForClass(Bean.class);
     assertTrue((Boolean)reflector.getGetInvoker("bool").invoke(new Bean(), new Byte[0]));
   }
+
+  @Test
+  public void shouldSetPrimitivesWithoutBoxing() throws Throwable {
+    class Bean {
+      private int count;
+      private long total;
+      public void setCount(int count) {
+        this.count = count;
+      }
+    }
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    assertTrue(reflector.getSetInvoker("count") instanceof MethodInvoker);
+    assertTrue(reflector.getSetInvoker("total") instanceof SetFieldInvoker);
+    Bean bean = new Bean();
+    PrimitiveSetterInvoker.forSetter(reflector.getSetInvoker("count")).setInt(bean, 3);
+    PrimitiveSetterInvoker.forSetter(reflector.getSetInvoker("total")).setLong(bean, 5L);
+    reflector.getSetInvoker("count").invoke(bean, new Object[] { 4 });
+    assertEquals(4, bean.count);
+    assertEquals(5L, bean.total);
+  }
+
+  public static class DirectBean {
+    private String name;
+    private long total;
+    private int count;
+    public String getName() {
+      return name;
+    }
+    public void setName(String name) {
+      this.name = name;
+    }
+    public long getTotal() {
+      return total;
+    }
+    public void setTotal(long total) {
+      this.total = total;
+    }
+    public String getFailure() {
+      throw new IllegalStateException("failure");
+    }
+  }
+
+  @Test
+  public void shouldAccessPropertiesThroughDirectInvokers() throws Throwable {
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory(true);
+    Reflector reflector = reflectorFactory.findForClass(DirectBean.class);
+    assertTrue(reflector.getGetInvoker("name") instanceof DirectMethodInvoker);
+    assertTrue(reflector.getSetInvoker("name") instanceof DirectMethodInvoker);
+    assertTrue(reflector.getGetInvoker("count") instanceof DirectGetFieldInvoker);
+    assertTrue(reflector.getSetInvoker("total") instanceof DirectMethodInvoker);
+    DirectBean bean = new DirectBean();
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { "foo" });
+    reflector.getSetInvoker("count").invoke(bean, new Object[] { 3 });
+    // widened to long as by reflection
+    reflector.getSetInvoker("total").invoke(bean, new Object[] { 5 });
+    assertEquals("foo", reflector.getGetInvoker("name").invoke(bean, null));
+    assertEquals(3, reflector.getGetInvoker("count").invoke(bean, null));
+    assertEquals(5L, reflector.getGetInvoker("total").invoke(bean, null));
+    assertEquals(String.class, MetaClass.forClass(DirectBean.class, reflectorFactory).getGetterType("name"));
+    try {
+      reflector.getGetInvoker("failure").invoke(bean, null);
+      fail();
+    } catch (InvocationTargetException e) {
+      assertTrue(e.getTargetException() instanceof IllegalStateException);
+    }
+  }
+
+  @Test
+  public void shouldAccessPropertiesOfNonPublicClassThroughDirectInvokers() throws Throwable {
+    class Bean {
+      private String name;
+      private String getName() {
+        return name;
+      }
+      private void setName(String name) {
+        this.name = name;
+      }
+    }
+    ReflectorFactory reflectorFactory = new DefaultReflectorFactory(true);
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    assertTrue(reflector.getSetInvoker("name") instanceof DirectMethodInvoker);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { "foo" });
+    assertEquals("foo", reflector.getGetInvoker("name").invoke(bean, null));
+  }
+
+  @Test
+  public void shouldFindPropertiesRegardlessOfCase() throws Exception {
+    Reflector reflector = new Reflector(Section.class);
+    assertEquals("id", reflector.findPropertyName("ID"));
+    assertEquals("id", reflector.findPropertyName("Id"));
+    assertNull(reflector.findPropertyName("name"));
+    assertTrue(reflector.hasGetter("id"));
+    assertTrue(reflector.hasSetter("id"));
+    assertFalse(reflector.hasGetter("name"));
+    assertFalse(reflector.hasSetter(null));
+  }
+
+  @Test
+  public void shouldFindSameReflectorThroughClassValue() throws Exception {
+    ClassValueReflectorFactory reflectorFactory = new ClassValueReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Section.class);
+    assertSame(reflector, reflectorFactory.findForClass(Section.class));
+    assertNotSame(reflector, new ClassValueReflectorFactory().findForClass(Section.class));
+    reflectorFactory.setDirectInvocationEnabled(true);
+    assertNotSame(reflector, reflectorFactory.findForClass(Section.class));
+    reflectorFactory.setClassCacheEnabled(false);
+    assertNotSame(reflectorFactory.findForClass(Section.class), reflectorFactory.findForClass(Section.class));
+  }
 }
@@ -424,4 +424,33 @@ public class TypeParameterResolverTest {
     Field field = A.class.getDeclaredField("id");
     assertEquals(Integer.class, TypeParameterResolver.resolveFieldType(field, clazz));
   }
+
+  @Test
+  public void testReturn_SameInstanceForSameSourceType() throws Exception {
+    Class<?> clazz = Level2Mapper.class;
+    Method selectList = clazz.getMethod("selectList", Object.class, Object.class);
+    Type result = TypeParameterResolver.resolveReturnType(selectList, clazz);
+    assertSame(result, TypeParameterResolver.resolveReturnType(selectList, clazz));
+    Method selectArray = clazz.getMethod("selectArray", List[].class);
+    Type[] paramTypes = TypeParameterResolver.resolveParamTypes(selectArray, clazz);
+    paramTypes[0] = null;
+    assertTrue(TypeParameterResolver.resolveParamTypes(selectArray, clazz)[0] instanceof GenericArrayType);
+  }
+
+  @Test
+  public void testResolvedTypesEqualToDeclaredTypes() throws Exception {
+    Class<?> clazz = Level1Mapper.class;
+    Method simpleSelectList = clazz.getMethod("simpleSelectList");
+    assertEquals(simpleSelectList.getGenericReturnType(), new TypeParameterResolver.ParameterizedTypeImpl(
+        List.class, null, new Type[] { Double.class }));
+    assertEquals(new TypeParameterResolver.ParameterizedTypeImpl(List.class, null, new Type[] { Double.class }),
+        simpleSelectList.getGenericReturnType());
+    assertEquals(simpleSelectList.getGenericReturnType().hashCode(), new TypeParameterResolver.ParameterizedTypeImpl(
+        List.class, null, new Type[] { Double.class }).hashCode());
+    Method simpleSelectWildcard = clazz.getMethod("simpleSelectWildcard");
+    Type wildcard = ((ParameterizedType) simpleSelectWildcard.getGenericReturnType()).getActualTypeArguments()[0];
+    assertEquals(wildcard, new TypeParameterResolver.WildcardTypeImpl(new Type[0], new Type[] { String.class }));
+    assertEquals(wildcard.hashCode(),
+        new TypeParameterResolver.WildcardTypeImpl(new Type[0], new Type[] { String.class }).hashCode());
+  }
 }
@@ -0,0 +1,135 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.factory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.apache.ibatis.reflection.ReflectionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CachingObjectFactoryTest {
+
+  @Test
+  public void createClass() throws Exception {
+    CachingObjectFactory objectFactory = new CachingObjectFactory();
+    for (int i = 0; i < 2; i++) {
+      TestClass testClass = objectFactory.create(TestClass.class,
+          Arrays.<Class<?>>asList(String.class, Integer.class), Arrays.<Object>asList("foo", i));
+      Assert.assertEquals((Integer) i, testClass.myInteger);
+      Assert.assertEquals("foo", testClass.myString);
+    }
+  }
+
+  @Test
+  public void createClassWithArgumentsNeedingConversion() throws Exception {
+    CachingObjectFactory objectFactory = new CachingObjectFactory();
+    PrimitiveBean bean = objectFactory.create(PrimitiveBean.class,
+        Arrays.<Class<?>>asList(long.class, String.class), Arrays.<Object>asList(1, null));
+    Assert.assertEquals(1L, bean.id);
+    bean = objectFactory.create(PrimitiveBean.class,
+        Arrays.<Class<?>>asList(long.class, String.class), Arrays.<Object>asList(2L, "a"));
+    Assert.assertEquals(2L, bean.id);
+    Assert.assertEquals("a", bean.name);
+    try {
+      objectFactory.create(PrimitiveBean.class,
+          Arrays.<Class<?>>asList(long.class, String.class), Arrays.<Object>asList(null, "a"));
+      Assert.fail("Should have thrown ReflectionException");
+    } catch (ReflectionException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+  }
+
+  @Test
+  public void createClassWithNonPublicConstructor() throws Exception {
+    CachingObjectFactory objectFactory = new CachingObjectFactory();
+    PrimitiveBean bean = objectFactory.create(PrimitiveBean.class);
+    Assert.assertEquals(-1L, bean.id);
+  }
+
+  @Test
+  public void createClassThrowsProperErrorMsg() {
+    CachingObjectFactory objectFactory = new CachingObjectFactory();
+    try {
+      objectFactory.create(TestClass.class, Collections.<Class<?>>singletonList(String.class), Collections.<Object>singletonList("foo"));
+      Assert.fail("Should have thrown ReflectionException");
+    } catch (ReflectionException e) {
+      Assert.assertTrue("Should not have trailing commas in types list", e.getMessage().contains("(String)"));
+      Assert.assertTrue("Should not have trailing commas in values list", e.getMessage().contains("(foo)"));
+    }
+  }
+
+  @Test
+  public void wrapExceptionThrownByConstructor() {
+    CachingObjectFactory objectFactory = new CachingObjectFactory();
+    try {
+      objectFactory.create(PrimitiveBean.class, Collections.<Class<?>>singletonList(String.class), Collections.<Object>singletonList("foo"));
+      Assert.fail("Should have thrown ReflectionException");
+    } catch (ReflectionException e) {
+      Assert.assertEquals("foo", e.getCause().getCause().getMessage());
+    }
+  }
+
+  @Test
+  public void createInterfaceImplementations() throws Exception {
+    CachingObjectFactory objectFactory = new CachingObjectFactory();
+    Assert.assertTrue(objectFactory.create(List.class) instanceof ArrayList);
+    Assert.assertTrue(objectFactory.create(List.class) instanceof ArrayList);
+    Assert.assertTrue(objectFactory.create(SortedSet.class) instanceof TreeSet);
+    Assert.assertNotNull(objectFactory.create(Map.class));
+  }
+
+  @Test
+  public void createAfterDeserialization() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(new CachingObjectFactory());
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      ObjectFactory objectFactory = (ObjectFactory) in.readObject();
+      Assert.assertTrue(objectFactory.create(List.class) instanceof ArrayList);
+    }
+  }
+
+  static class PrimitiveBean {
+    long id;
+    String name;
+
+    private PrimitiveBean() {
+      this.id = -1;
+    }
+
+    PrimitiveBean(long id, String name) {
+      this.id = id;
+      this.name = name;
+    }
+
+    PrimitiveBean(String message) {
+      throw new IllegalStateException(message);
+    }
+  }
+
+}
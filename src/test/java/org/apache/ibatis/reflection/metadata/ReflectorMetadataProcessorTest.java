@@ -0,0 +1,270 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.metadata;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.junit.Test;
+
+public class ReflectorMetadataProcessorTest {
+
+  private static final String SOURCE = "package sample;\n"
+      + "import java.util.List;\n"
+      + "@org.apache.ibatis.annotations.GenerateReflectorMetadata\n"
+      + "public class Bean extends Base<String> {\n"
+      + "  private int count;\n"
+      + "  private boolean active;\n"
+      + "  public boolean isActive() { return active; }\n"
+      + "  public boolean getActive() { return active; }\n"
+      + "  public String getCovariant() { return null; }\n"
+      + "  public void setTags(List<String> tags) { }\n"
+      + "  public static class Nested { private Long id; }\n"
+      + "  public static class Ambiguous { public void setX(String x) { } public void setX(Integer x) { } }\n"
+      + "}\n"
+      + "class Base<T> {\n"
+      + "  private T value;\n"
+      + "  public T getValue() { return value; }\n"
+      + "  public void setValue(T value) { this.value = value; }\n"
+      + "  public Object getCovariant() { return null; }\n"
+      + "}\n";
+
+  private static final String CONFLICTS_SOURCE = "package sample;\n"
+      + "@org.apache.ibatis.annotations.GenerateReflectorMetadata\n"
+      + "public class Conflicts {\n"
+      + "  public static class Parent { public Object getValue() { return null; } public void setValue(Object value) { } }\n"
+      + "  public static class Covariant extends Parent {\n"
+      + "    public String getValue() { return null; } public void setValue(String value) { }\n"
+      + "  }\n"
+      + "  public static class Booleans { public boolean isFlag() { return false; } public boolean getFlag() { return false; } }\n"
+      + "  public static class SetterMatchingGetter {\n"
+      + "    public Integer getX() { return null; } public void setX(String x) { } public void setX(Integer x) { }\n"
+      + "  }\n"
+      + "  public static class SpecificSetter { public void setY(Object y) { } public void setY(String y) { } }\n"
+      + "  public interface Named { default String getName() { return null; } }\n"
+      + "  public static class DefaultGetter implements Named { private String name; public void setName(Object name) { } }\n"
+      + "  public static class Generic<T> { public T getId() { return null; } public void setId(T id) { } }\n"
+      + "  public static class Bridged extends Generic<Long> { public Long getId() { return null; } }\n"
+      + "  public static class AmbiguousGetters { public String getZ() { return null; } public boolean isZ() { return false; } }\n"
+      + "  public static class AmbiguousSetters { public void setZ(String z) { } public void setZ(Integer z) { } }\n"
+      + "}\n";
+
+  @Test
+  public void shouldGenerateSameReflectorAsReflection() throws Exception {
+    Path dir = compile("sample/Bean.java", SOURCE, true);
+    try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, getClass().getClassLoader())) {
+      for (String className : Arrays.asList("sample.Bean", "sample.Bean$Nested")) {
+        Class<?> type = loader.loadClass(className);
+        ReflectorMetadata metadata = ReflectorMetadata.forClass(type);
+        assertNotNull(metadata);
+        assertTrue(metadata.matches(type));
+        assertSameProperties(new Reflector(type), new Reflector(type, metadata, false));
+      }
+      assertNull(ReflectorMetadata.forClass(loader.loadClass("sample.Bean$Ambiguous")));
+    } finally {
+      deleteRecursively(dir.toFile());
+    }
+  }
+
+  @Test
+  public void shouldResolveConflictsAsReflector() throws Exception {
+    Path dir = compile("sample/Conflicts.java", CONFLICTS_SOURCE, true);
+    try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, getClass().getClassLoader())) {
+      for (String name : Arrays.asList("Covariant", "Booleans", "SetterMatchingGetter", "SpecificSetter", "DefaultGetter",
+          "Bridged")) {
+        Class<?> type = loader.loadClass("sample.Conflicts$" + name);
+        ReflectorMetadata metadata = ReflectorMetadata.forClass(type);
+        assertNotNull(name, metadata);
+        Reflector expected = new Reflector(type);
+        Reflector actual = new Reflector(type, metadata, false);
+        assertSameProperties(expected, actual);
+        for (String property : expected.getGetablePropertyNames()) {
+          assertEquals(name + "." + property, invokerMember(expected.getGetInvoker(property)),
+              invokerMember(actual.getGetInvoker(property)));
+        }
+        for (String property : expected.getSetablePropertyNames()) {
+          assertEquals(name + "." + property, invokerMember(expected.getSetInvoker(property)),
+              invokerMember(actual.getSetInvoker(property)));
+        }
+      }
+      for (String name : Arrays.asList("AmbiguousGetters", "AmbiguousSetters")) {
+        Class<?> type = loader.loadClass("sample.Conflicts$" + name);
+        assertNull(name, ReflectorMetadata.forClass(type));
+        try {
+          new Reflector(type);
+          fail(name);
+        } catch (ReflectionException e) {
+          // both reject the class
+        }
+      }
+    } finally {
+      deleteRecursively(dir.toFile());
+    }
+  }
+
+  @Test
+  public void shouldIgnoreMetadataWhenSuperclassChanged() throws Exception {
+    Path dir = compile("sample/Bean.java", SOURCE, true);
+    try {
+      compile(dir, "sample/Base.java", "package sample;\n"
+          + "class Base<T> {\n"
+          + "  private T value;\n"
+          + "  public T getValue() { return value; }\n"
+          + "  public void setValue(T value) { this.value = value; }\n"
+          + "  public Object getCovariant() { return null; }\n"
+          + "  public String getAdded() { return null; }\n"
+          + "}\n", false);
+      try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, getClass().getClassLoader())) {
+        Class<?> type = loader.loadClass("sample.Bean");
+        ReflectorMetadata metadata = ReflectorMetadata.forClass(type);
+        assertNotNull(metadata);
+        assertFalse(metadata.matches(type));
+        try {
+          new Reflector(type, metadata, false);
+          fail();
+        } catch (ReflectionException e) {
+          // the factory reflects the class instead
+        }
+        assertTrue(new DefaultReflectorFactory().findForClass(type).hasGetter("added"));
+      }
+    } finally {
+      deleteRecursively(dir.toFile());
+    }
+  }
+
+  @Test
+  public void shouldIgnoreMetadataWithoutHierarchy() {
+    ReflectorMetadata metadata = new ReflectorMetadata() {
+      {
+        getterMethod("name", Bean.class.getName(), "getName", "java.lang.String");
+      }
+    };
+    assertFalse(metadata.matches(Bean.class));
+    try {
+      new Reflector(Bean.class, metadata, false);
+      fail();
+    } catch (ReflectionException e) {
+      // the factory reflects the class instead
+    }
+  }
+
+  @Test
+  public void shouldRejectOutdatedMetadata() {
+    ReflectorMetadata metadata = new ReflectorMetadata() {
+      {
+        declaredMembers(Bean.class.getName(), 1, 0);
+        getterMethod("name", Bean.class.getName(), "getFullName", "java.lang.String");
+      }
+    };
+    assertTrue(metadata.matches(Bean.class));
+    try {
+      new Reflector(Bean.class, metadata, false);
+      fail();
+    } catch (ReflectionException e) {
+      // the factory reflects the class instead
+    }
+  }
+
+  public static class Bean {
+    public String getName() {
+      return null;
+    }
+  }
+
+  private Path compile(String path, String source, boolean withProcessor) throws Exception {
+    Path dir = Files.createTempDirectory("metadata");
+    compile(dir, path, source, withProcessor);
+    return dir;
+  }
+
+  private void compile(Path dir, String path, String source, boolean withProcessor) throws Exception {
+    Path file = dir.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+    String classPath = dir + File.pathSeparator + System.getProperty("java.class.path");
+    String[] options = withProcessor
+        ? new String[] { "-processor", ReflectorMetadataProcessor.class.getName() }
+        : new String[] { "-proc:none" };
+    List<String> arguments = new ArrayList<>(Arrays.asList("-d", dir.toString(), "-s", dir.toString(), "-cp", classPath));
+    arguments.addAll(Arrays.asList(options));
+    arguments.add(file.toString());
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])));
+  }
+
+  private String invokerMember(Invoker invoker) throws Exception {
+    for (Field field : invoker.getClass().getDeclaredFields()) {
+      if (Member.class.isAssignableFrom(field.getType())) {
+        field.setAccessible(true);
+        Member member = (Member) field.get(invoker);
+        return member.toString();
+      }
+    }
+    return invoker.getClass().getName();
+  }
+
+  private void assertSameProperties(Reflector expected, Reflector actual) {
+    assertArrayEquals(sorted(expected.getGetablePropertyNames()), sorted(actual.getGetablePropertyNames()));
+    assertArrayEquals(sorted(expected.getSetablePropertyNames()), sorted(actual.getSetablePropertyNames()));
+    for (String property : expected.getGetablePropertyNames()) {
+      assertEquals(expected.getGetterType(property), actual.getGetterType(property));
+    }
+    for (String property : expected.getSetablePropertyNames()) {
+      assertEquals(expected.getSetterType(property), actual.getSetterType(property));
+    }
+  }
+
+  private String[] sorted(String[] names) {
+    List<String> list = Arrays.asList(names.clone());
+    list.sort(null);
+    return list.toArray(new String[list.size()]);
+  }
+
+  private void deleteRecursively(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    file.delete();
+  }
+
+}
@@ -0,0 +1,72 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.property;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class PropertyCopierTest {
+
+  static class Parent {
+    private Integer id;
+    protected final String code;
+
+    Parent(String code) {
+      this.code = code;
+    }
+  }
+
+  static class Child extends Parent {
+    static String shared = "shared";
+    private String name;
+    private int count;
+
+    Child(String code) {
+      super(code);
+    }
+  }
+
+  @Test
+  public void shouldCopyFieldsOfTheWholeHierarchy() {
+    Child source = new Child("a");
+    source.name = "n";
+    source.count = 3;
+    ((Parent) source).id = 7;
+    for (int i = 0; i < 2; i++) {
+      Child destination = new Child("b");
+      PropertyCopier.copyBeanProperties(Child.class, source, destination);
+      assertEquals("n", destination.name);
+      assertEquals(3, destination.count);
+      assertEquals(Integer.valueOf(7), ((Parent) destination).id);
+      assertEquals("a", destination.code);
+    }
+    assertEquals("shared", Child.shared);
+  }
+
+  @Test
+  public void shouldCopyOnlyFieldsOfTheGivenType() {
+    Child source = new Child("a");
+    source.name = "n";
+    ((Parent) source).id = 7;
+    Child destination = new Child("b");
+    PropertyCopier.copyBeanProperties(Parent.class, source, destination);
+    assertEquals(Integer.valueOf(7), ((Parent) destination).id);
+    assertNull(destination.name);
+  }
+
+}
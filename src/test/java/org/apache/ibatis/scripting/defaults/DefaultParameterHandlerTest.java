@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.mapping.*;
@@ -36,6 +37,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -70,6 +72,32 @@ public class DefaultParameterHandlerTest {
 
   }
 
+  @Test
+  public void setParametersFromMap() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    final Map<String, Object> parameterObject = new HashMap<>();
+    final Map<String, Object> nested = new HashMap<>();
+    nested.put("name", "b");
+    parameterObject.put("id", 1);
+    parameterObject.put("nested", nested);
+    parameterObject.put("list", Collections.singletonList("c"));
+
+    TypeHandler<Object> typeHandler = mock(TypeHandler.class);
+    List<ParameterMapping> parameterMappings = new ArrayList<>();
+    for (String property : new String[] { "id", "missing", "nested.name", "list[0]" }) {
+      parameterMappings.add(new ParameterMapping.Builder(config, property, typeHandler).jdbcType(JdbcType.OTHER).build());
+    }
+    BoundSql boundSql = new BoundSql(config, "some select statement", parameterMappings, parameterObject);
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement, parameterObject, boundSql).setParameters(ps);
+    verify(typeHandler).setParameter(ps, 1, 1, JdbcType.OTHER);
+    verify(typeHandler).setParameter(ps, 2, null, JdbcType.OTHER);
+    verify(typeHandler).setParameter(ps, 3, "b", JdbcType.OTHER);
+    verify(typeHandler).setParameter(ps, 4, "c", JdbcType.OTHER);
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.columnar_result;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ColumnarResultMappingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/columnar_result/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/columnar_result/CreateDB.sql");
+  }
+
+  @Test
+  public void shouldReadColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      ColumnarResult result = mapper.getMeasures();
+      assertEquals(3, result.getRowCount());
+      assertEquals(Arrays.<Class<?>>asList(int.class, long.class, double.class, Object.class, Object.class), result.getColumnTypes());
+      assertArrayEquals(new int[] { 1, 2, 3 }, result.getInts(result.getColumnIndex("id")));
+      assertArrayEquals(new long[] { 10000000000L, 0, 30 }, result.getLongs(1));
+      assertArrayEquals(new double[] { 1.5, 2.5, 0 }, result.getDoubles(2), 0);
+      assertArrayEquals(new Object[] { "a", null, "c" }, result.getObjects(3));
+      assertArrayEquals(new Object[] { new BigDecimal("12345678901234567.89"), null, new BigDecimal("0.10") }, result.getObjects(4));
+      assertFalse(result.isNull(1, 0));
+      assertTrue(result.isNull(1, 1));
+      assertTrue(result.isNull(2, 2));
+      assertNull(result.getObject(1, 1));
+      assertEquals(30L, result.getObject(1, 2));
+    }
+  }
+
+  @Test
+  public void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      // mapper methods returning a single object ignore row bounds
+      List<ColumnarResult> results = sqlSession.selectList(Mapper.class.getName() + ".getMeasures", null, new RowBounds(1, 1));
+      assertEquals(1, results.size());
+      ColumnarResult result = results.get(0);
+      assertEquals(1, result.getRowCount());
+      assertEquals(2, result.getInt(0, 0));
+    }
+  }
+
+}
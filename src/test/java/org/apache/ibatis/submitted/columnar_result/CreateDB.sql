@@ -0,0 +1,30 @@
+--
+--    Copyright 2009-2018 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop table measures if exists;
+
+create table measures (
+  id int,
+  total bigint,
+  amount double,
+  label varchar(20),
+  price decimal(20, 2)
+);
+
+insert into measures values(1, 10000000000, 1.5, 'a', 12345678901234567.89);
+insert into measures values(2, null, 2.5, null, null);
+insert into measures values(3, 30, null, 'c', 0.10);
@@ -0,0 +1,89 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompiledRowMappingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compiled_row_mapping/CreateDB.sql");
+  }
+
+  @Test
+  public void shouldAutoMapColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      // twice to use the compiled row mapper of the first execution
+      for (int i = 0; i < 2; i++) {
+        List<User> users = mapper.getUsers();
+        assertEquals(3, users.size());
+        assertEquals(Integer.valueOf(1), users.get(0).getId());
+        assertEquals("User1", users.get(0).getFirstName());
+        assertEquals(30, users.get(0).getAge());
+        // null is not set on primitives
+        assertEquals(-1, users.get(1).getAge());
+        sqlSession.clearCache();
+      }
+    }
+  }
+
+  @Test
+  public void shouldMapResultMapWithDiscriminator() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsersWithResultMap();
+      assertEquals(3, users.size());
+      assertEquals("User1", users.get(0).getName());
+      assertNull(users.get(0).getFirstName());
+      assertEquals(-1, users.get(1).getAge());
+      assertTrue(users.get(2) instanceof Admin);
+      assertEquals("Admin3", users.get(2).getName());
+      assertEquals(40, users.get(2).getAge());
+      assertEquals(Integer.valueOf(9), ((Admin) users.get(2)).getLevel());
+    }
+  }
+
+  @Test
+  public void shouldReturnNullForEmptyRow() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertNull(mapper.getEmptyRow());
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2016 the original author or authors.
+ *    Copyright 2009-2018 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,6 +15,8 @@
  */
 package org.apache.ibatis.submitted.cursor_simple;
 
+import java.util.stream.Stream;
+
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.cursor.Cursor;
 
@@ -23,4 +25,7 @@ public interface AnnotationMapper {
   @Select("select * from users order by id")
   Cursor<User> getAllUsers();
 
+  @Select("select * from users order by id")
+  Stream<User> getAllUsersAsStream();
+
 }
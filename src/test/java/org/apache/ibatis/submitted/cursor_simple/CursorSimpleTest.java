@@ -17,7 +17,10 @@ package org.apache.ibatis.submitted.cursor_simple;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.defaults.CursorSpliterator;
+import org.apache.ibatis.executor.statement.AdaptiveFetchSize;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -32,6 +35,10 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class CursorSimpleTest {
 
@@ -97,6 +104,55 @@ public class CursorSimpleTest {
         }
     }
 
+    @Test
+    public void shouldLearnFetchSizeFromConsumedCursor() {
+        Configuration configuration = sqlSessionFactory.getConfiguration();
+        AdaptiveFetchSize adaptiveFetchSize = configuration
+                .getMappedStatement("org.apache.ibatis.submitted.cursor_simple.Mapper.getAllUsers").getAdaptiveFetchSize();
+        configuration.setAdaptiveFetchSizeEnabled(true);
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+            Mapper mapper = sqlSession.getMapper(Mapper.class);
+            Cursor<User> usersCursor = mapper.getAllUsers();
+            int count = 0;
+            for (User user : usersCursor) {
+                count++;
+            }
+            Assert.assertEquals(5, count);
+            Assert.assertTrue(usersCursor.isConsumed());
+
+            Assert.assertEquals(1, adaptiveFetchSize.getExecutions());
+            Assert.assertEquals(5.0, adaptiveFetchSize.getAverageRows(), 0.001);
+            Assert.assertEquals(2.0, adaptiveFetchSize.getAverageColumns(), 0.001);
+            Assert.assertEquals(Integer.valueOf(6), adaptiveFetchSize.getFetchSize(1, 1000));
+        } finally {
+            configuration.setAdaptiveFetchSizeEnabled(false);
+            adaptiveFetchSize.reset();
+        }
+    }
+
+    @Test
+    public void shouldLearnFetchSizeFromClosedCursor() throws IOException {
+        Configuration configuration = sqlSessionFactory.getConfiguration();
+        AdaptiveFetchSize adaptiveFetchSize = configuration
+                .getMappedStatement("org.apache.ibatis.submitted.cursor_simple.Mapper.getAllUsers").getAdaptiveFetchSize();
+        configuration.setAdaptiveFetchSizeEnabled(true);
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+            Mapper mapper = sqlSession.getMapper(Mapper.class);
+            Cursor<User> usersCursor = mapper.getAllUsers();
+            Iterator<User> iterator = usersCursor.iterator();
+            iterator.next();
+            iterator.next();
+            usersCursor.close();
+            usersCursor.close();
+
+            Assert.assertEquals(1, adaptiveFetchSize.getExecutions());
+            Assert.assertEquals(2.0, adaptiveFetchSize.getAverageRows(), 0.001);
+        } finally {
+            configuration.setAdaptiveFetchSizeEnabled(false);
+            adaptiveFetchSize.reset();
+        }
+    }
+
     @Test
     public void testCursorClosedOnSessionClose() {
         Cursor<User> usersCursor;
@@ -361,4 +417,74 @@ public class CursorSimpleTest {
         }
     }
 
+    @Test
+    public void shouldGetAllUserAsStream() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+            Mapper mapper = sqlSession.getMapper(Mapper.class);
+            try (Stream<User> users = mapper.getAllUsersAsStream()) {
+                List<String> names = users.map(User::getName).collect(Collectors.toList());
+                Assert.assertEquals(5, names.size());
+                Assert.assertEquals("User1", names.get(0));
+                Assert.assertEquals("User5", names.get(4));
+            }
+        }
+    }
+
+    @Test
+    public void shouldGetAllUserAsParallelStreamUsingAnnotationBasedMapper() throws IOException {
+        // a factory of its own, so that the statements of the annotation mapper do not make the short names ambiguous
+        SqlSessionFactory annotationSqlSessionFactory;
+        try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_simple/mybatis-config.xml")) {
+            annotationSqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+        }
+        annotationSqlSessionFactory.getConfiguration().addMapper(AnnotationMapper.class);
+        try (SqlSession sqlSession = annotationSqlSessionFactory.openSession()) {
+            AnnotationMapper mapper = sqlSession.getMapper(AnnotationMapper.class);
+            try (Stream<User> users = mapper.getAllUsersAsStream()) {
+                List<String> names = users.parallel().map(User::getName).collect(Collectors.toList());
+                // encounter order is kept even if the items are processed in parallel
+                Assert.assertEquals(5, names.size());
+                Assert.assertEquals("User1", names.get(0));
+                Assert.assertEquals("User2", names.get(1));
+                Assert.assertEquals("User5", names.get(4));
+            }
+        }
+    }
+
+    @Test
+    public void shouldCloseCursorWhenStreamIsClosed() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+            Mapper mapper = sqlSession.getMapper(Mapper.class);
+            Cursor<User> usersCursor = mapper.getAllUsers();
+            Stream<User> users = usersCursor.stream();
+
+            Assert.assertEquals("User1", users.findFirst().get().getName());
+            Assert.assertTrue(usersCursor.isOpen());
+
+            users.close();
+            Assert.assertFalse(usersCursor.isOpen());
+            Assert.assertFalse(usersCursor.isConsumed());
+        }
+    }
+
+    @Test
+    public void shouldSplitCursorInBatches() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+            Mapper mapper = sqlSession.getMapper(Mapper.class);
+            Cursor<User> usersCursor = mapper.getAllUsers();
+            CursorSpliterator<User> spliterator = new CursorSpliterator<>(usersCursor.iterator(), 2);
+
+            Spliterator<User> batch = spliterator.trySplit();
+            Assert.assertEquals(2, batch.estimateSize());
+            Assert.assertTrue(batch.hasCharacteristics(Spliterator.ORDERED));
+            Assert.assertEquals(1, usersCursor.getCurrentIndex());
+
+            List<String> names = StreamSupport.stream(spliterator, false).map(User::getName).collect(Collectors.toList());
+            Assert.assertEquals(3, names.size());
+            Assert.assertEquals("User3", names.get(0));
+            Assert.assertTrue(usersCursor.isConsumed());
+            Assert.assertNull(spliterator.trySplit());
+        }
+    }
+
 }
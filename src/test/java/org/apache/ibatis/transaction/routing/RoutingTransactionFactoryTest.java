@@ -0,0 +1,194 @@
+/**
+ *    Copyright 2009-2018 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.transaction.routing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.TransactionException;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RoutingTransactionFactoryTest {
+
+  private final Configuration configuration = new Configuration();
+
+  private DataSource primaryDataSource;
+  private Connection primaryConnection;
+  private DataSource replicaDataSource1;
+  private Connection replicaConnection1;
+  private DataSource replicaDataSource2;
+  private Connection replicaConnection2;
+
+  @Before
+  public void setUp() throws Exception {
+    primaryDataSource = mock(DataSource.class);
+    primaryConnection = mock(Connection.class);
+    when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+    replicaDataSource1 = mock(DataSource.class);
+    replicaConnection1 = mock(Connection.class);
+    when(replicaDataSource1.getConnection()).thenReturn(replicaConnection1);
+    replicaDataSource2 = mock(DataSource.class);
+    replicaConnection2 = mock(Connection.class);
+    when(replicaDataSource2.getConnection()).thenReturn(replicaConnection2);
+  }
+
+  @Test
+  public void shouldRouteSelectsToReplicaAndUpdatesToPrimary() throws Exception {
+    RoutingTransactionFactory factory = newFactory(ReplicaDataSources.Strategy.ROUND_ROBIN);
+    Transaction tx = factory.newTransaction(primaryDataSource, null, false);
+
+    assertSame(replicaConnection1, tx.getConnection(statement("org.Mapper.select", SqlCommandType.SELECT)));
+    assertSame(primaryConnection, tx.getConnection());
+    assertSame(primaryConnection, tx.getConnection(statement("org.Mapper.update", SqlCommandType.UPDATE)));
+  }
+
+  @Test
+  public void shouldRouteSelectsToPrimaryAfterWriteUntilCommit() throws Exception {
+    RoutingTransactionFactory factory = newFactory(ReplicaDataSources.Strategy.ROUND_ROBIN);
+    RoutingTransaction tx = (RoutingTransaction) factory.newTransaction(primaryDataSource, null, false);
+    MappedStatement select = statement("org.Mapper.select", SqlCommandType.SELECT);
+
+    tx.getConnection(statement("org.Mapper.insert", SqlCommandType.INSERT));
+    assertTrue(tx.isWriting());
+    assertSame(primaryConnection, tx.getConnection(select));
+
+    tx.commit();
+    assertFalse(tx.isWriting());
+    assertSame(replicaConnection1, tx.getConnection(select));
+
+    tx.getConnection(statement("org.Mapper.delete", SqlCommandType.DELETE));
+    assertSame(primaryConnection, tx.getConnection(select));
+    tx.rollback();
+    assertSame(replicaConnection1, tx.getConnection(select));
+  }
+
+  @Test
+  public void shouldRouteSelectsToReplicaAfterAutoCommittedWrite() throws Exception {
+    RoutingTransactionFactory factory = newFactory(ReplicaDataSources.Strategy.ROUND_ROBIN);
+    RoutingTransaction tx = (RoutingTransaction) factory.newTransaction(primaryDataSource, null, true);
+    MappedStatement select = statement("org.Mapper.select", SqlCommandType.SELECT);
+
+    assertTrue(tx.isAutoCommit());
+    assertSame(primaryConnection, tx.getConnection(statement("org.Mapper.update", SqlCommandType.UPDATE)));
+    assertFalse(tx.isWriting());
+    assertSame(replicaConnection1, tx.getConnection(select));
+  }
+
+  @Test
+  public void shouldCreateReplicasFromProperties() throws Exception {
+    RoutingTransactionFactory factory = new RoutingTransactionFactory();
+    Properties props = new Properties();
+    props.setProperty("replica.r2.driver", "org.hsqldb.jdbcDriver");
+    props.setProperty("replica.r2.url", "jdbc:hsqldb:mem:replica2");
+    props.setProperty("replica.r1.driver", "org.hsqldb.jdbcDriver");
+    props.setProperty("replica.r1.url", "jdbc:hsqldb:mem:replica1");
+    props.setProperty("replica.r1.poolMaximumActiveConnections", "3");
+    props.setProperty("replicaStrategy", "LEAST_LOADED");
+    factory.setProperties(props);
+
+    ReplicaDataSources replicas = factory.getReplicas();
+    assertEquals(2, replicas.size());
+    assertEquals(ReplicaDataSources.Strategy.LEAST_LOADED, replicas.getStrategy());
+    PooledDataSource replica1 = (PooledDataSource) replicas.getDataSource(0);
+    assertEquals("jdbc:hsqldb:mem:replica1", replica1.getUrl());
+    assertEquals(3, replica1.getPoolMaximumActiveConnections());
+    assertEquals("jdbc:hsqldb:mem:replica2", ((PooledDataSource) replicas.getDataSource(1)).getUrl());
+  }
+
+  @Test(expected = TransactionException.class)
+  public void shouldRequireReplicas() throws Exception {
+    RoutingTransactionFactory factory = new RoutingTransactionFactory();
+    factory.setProperties(new Properties());
+    factory.newTransaction(primaryDataSource, null, false);
+  }
+
+  @Test
+  public void shouldRoutePrimaryStatementsToPrimary() throws Exception {
+    RoutingTransactionFactory factory = newFactory(ReplicaDataSources.Strategy.ROUND_ROBIN);
+    Properties props = new Properties();
+    props.setProperty("primaryStatements", "org.Mapper.selectForUpdate, org.LockMapper");
+    factory.setProperties(props);
+    Transaction tx = factory.newTransaction(primaryDataSource, null, false);
+
+    assertSame(primaryConnection, tx.getConnection(statement("org.Mapper.selectForUpdate", SqlCommandType.SELECT)));
+    assertSame(primaryConnection, tx.getConnection(statement("org.LockMapper.select", SqlCommandType.SELECT)));
+    assertSame(primaryConnection,
+        tx.getConnection(statement("org.Mapper.insert" + SelectKeyGenerator.SELECT_KEY_SUFFIX, SqlCommandType.SELECT)));
+    assertSame(replicaConnection1, tx.getConnection(statement("org.Mapper.select", SqlCommandType.SELECT)));
+  }
+
+  @Test
+  public void shouldPickReplicasInTurn() throws Exception {
+    RoutingTransactionFactory factory = newFactory(ReplicaDataSources.Strategy.ROUND_ROBIN);
+    MappedStatement select = statement("org.Mapper.select", SqlCommandType.SELECT);
+
+    Transaction tx1 = factory.newTransaction(primaryDataSource, null, false);
+    assertSame(replicaConnection1, tx1.getConnection(select));
+    Transaction tx2 = factory.newTransaction(primaryDataSource, null, false);
+    assertSame(replicaConnection2, tx2.getConnection(select));
+    Transaction tx3 = factory.newTransaction(primaryDataSource, null, false);
+    assertSame(replicaConnection1, tx3.getConnection(select));
+  }
+
+  @Test
+  public void shouldPickLeastLoadedReplicaAndReleaseItOnClose() throws Exception {
+    RoutingTransactionFactory factory = newFactory(ReplicaDataSources.Strategy.LEAST_LOADED);
+    ReplicaDataSources replicas = factory.getReplicas();
+    MappedStatement select = statement("org.Mapper.select", SqlCommandType.SELECT);
+
+    Transaction tx1 = factory.newTransaction(primaryDataSource, null, false);
+    assertSame(replicaConnection1, tx1.getConnection(select));
+    Transaction tx2 = factory.newTransaction(primaryDataSource, null, false);
+    assertSame(replicaConnection2, tx2.getConnection(select));
+    tx2.close();
+    verify(replicaConnection2).close();
+    assertEquals(1, replicas.getActiveConnections(0));
+    assertEquals(0, replicas.getActiveConnections(1));
+
+    Transaction tx3 = factory.newTransaction(primaryDataSource, null, false);
+    assertSame(replicaConnection2, tx3.getConnection(select));
+  }
+
+  private RoutingTransactionFactory newFactory(ReplicaDataSources.Strategy strategy) {
+    ReplicaDataSources replicas = new ReplicaDataSources(Arrays.asList(replicaDataSource1, replicaDataSource2), strategy);
+    return new RoutingTransactionFactory(new JdbcTransactionFactory(), replicas);
+  }
+
+  private MappedStatement statement(String id, SqlCommandType sqlCommandType) {
+    return new MappedStatement.Builder(configuration, id, new StaticSqlSource(configuration, "sql"), sqlCommandType).build();
+  }
+
+}